@@ -7,7 +7,50 @@ export default {
   getUnreadCount() {
     return api.get('/api/notifications/unread-count')
   },
+  getNotificationPage(before = '', limit = 20) {
+    return api.get('/api/notifications', { params: { before, limit } })
+  },
   markAsRead(id) {
     return api.put(`/api/notifications/${id}/read`)
   },
+  markManyAsRead(ids) {
+    return api.put('/api/notifications/read', ids)
+  },
+  markAllAsRead() {
+    return api.put('/api/notifications/read-all')
+  },
+  // EventSource cannot send an Authorization header, so each connection is opened with a single-use ticket
+  // fetched with the normal bearer token. A used ticket cannot reconnect, so a dropped stream is reopened with a
+  // fresh one. Returns a handle whose close() stops the stream for good.
+  openStream({ onUnreadCount, onNotification }) {
+    let source = null
+    let retry = null
+    let closed = false
+    const connect = () => {
+      api
+        .post('/api/notifications/stream-ticket')
+        .then((res) => {
+          if (closed) return
+          const url = `${api.defaults.baseURL}/api/notifications/stream?ticket=${encodeURIComponent(res.data.ticket)}`
+          source = new EventSource(url)
+          source.addEventListener('unread-count', (e) => onUnreadCount(JSON.parse(e.data)))
+          source.addEventListener('notification', (e) => onNotification(JSON.parse(e.data)))
+          source.onerror = () => {
+            source.close()
+            if (!closed) retry = setTimeout(connect, 5000)
+          }
+        })
+        .catch(() => {
+          if (!closed) retry = setTimeout(connect, 30000)
+        })
+    }
+    connect()
+    return {
+      close() {
+        closed = true
+        clearTimeout(retry)
+        if (source) source.close()
+      },
+    }
+  },
 }
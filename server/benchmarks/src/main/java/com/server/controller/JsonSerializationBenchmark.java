@@ -0,0 +1,105 @@
+package com.server.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.server.model.CursorPage;
+import com.server.model.Post;
+import com.server.model.PrayerRequest;
+import com.server.model.PrayerRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the feed and prayer wall pages to JSON, with an ObjectMapper set up the way Spring Boot configures the
+ * application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final String CONTENT = "Please pray for my family as we go through a difficult season. " +
+            "We are trusting God for healing, provision and peace, and we are grateful for every prayer.";
+    private static final String AVATAR = "https://static.vecteezy.com/system/resources/previews/013/360/247/non_2x/default-avatar.jpg";
+
+    @Param({"20", "500"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CursorPage<Post> postPage;
+    private CursorPage<PrayerRequestDto> prayerRequestPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<Post> posts = new ArrayList<>();
+        List<PrayerRequestDto> prayerRequests = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime createdAt = LocalDateTime.now().minusMinutes(i);
+
+            Post post = new Post();
+            post.setId(i + 1);
+            post.setUserId(7);
+            post.setUserDisplayName("user7");
+            post.setUserProfileImage(AVATAR);
+            post.setContent(CONTENT);
+            post.setCreatedAt(Timestamp.valueOf(createdAt));
+            post.setAmenCount(3);
+            post.setCommentCount(1);
+            post.setLikedByCurrentUser(i % 3 == 0);
+            if (i % 10 == 9) {
+                Post original = new Post();
+                original.setId(i);
+                original.setUserId(8);
+                original.setUserDisplayName("user8");
+                original.setUserProfileImage(AVATAR);
+                original.setContent(CONTENT);
+                original.setCreatedAt(Timestamp.valueOf(createdAt.minusHours(1)));
+                post.setOriginalPost(original);
+                post.setOriginalPostId(i);
+            }
+            posts.add(post);
+
+            PrayerRequest request = new PrayerRequest(i + 1, 7, "User 7", CONTENT, createdAt, true, false, "Family",
+                    i % 5 == 0, null);
+            PrayerRequestDto dto = new PrayerRequestDto(i % 40, request);
+            dto.setUserProfileImage(AVATAR);
+            prayerRequests.add(dto);
+        }
+        postPage = new CursorPage<>(posts, "MjAyNi0wMS0wMVQwMDowMHwxMDA");
+        prayerRequestPage = new CursorPage<>(prayerRequests, "MjAyNi0wMS0wMVQwMDowMHwxMDA");
+    }
+
+    @Benchmark
+    public byte[] feedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    @Benchmark
+    public byte[] prayerRequestPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(prayerRequestPage);
+    }
+}
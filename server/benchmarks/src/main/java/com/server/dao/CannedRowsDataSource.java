@@ -0,0 +1,112 @@
+package com.server.dao;
+
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.function.Function;
+
+/**
+ * A DataSource that answers every query with canned rows, so a DAO method runs end to end through JdbcTemplate
+ * and its row mapper without a database. Parameters are ignored.
+ *
+ * Columns are named c1, c2, ... and typed OTHER unless labels and SQL types are given, which code that reads
+ * columns by label or copies the result (queryForRowSet) needs.
+ */
+final class CannedRowsDataSource extends AbstractDataSource {
+
+    private final Function<String, Object[][]> rowsForSql;
+    private final String[] labels;
+    private final int[] types;
+
+    CannedRowsDataSource(Function<String, Object[][]> rowsForSql) {
+        this(rowsForSql, null, null);
+    }
+
+    CannedRowsDataSource(Function<String, Object[][]> rowsForSql, String[] labels, int[] types) {
+        this.rowsForSql = rowsForSql;
+        this.labels = labels;
+        this.types = types;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> statement((String) args[0]);
+            case "createStatement" -> proxy(Statement.class, (statement, statementMethod, statementArgs) ->
+                    statementMethod.getName().equals("executeQuery")
+                            ? resultSet(rowsForSql.apply((String) statementArgs[0]))
+                            : defaultValue(statementMethod));
+            default -> defaultValue(method);
+        });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        return getConnection();
+    }
+
+    private PreparedStatement statement(String sql) {
+        Object[][] rows = rowsForSql.apply(sql);
+        return proxy(PreparedStatement.class, (proxy, method, args) ->
+                method.getName().equals("executeQuery") ? resultSet(rows) : defaultValue(method));
+    }
+
+    private ResultSet resultSet(Object[][] rows) {
+        SimpleResultSet rs = new SimpleResultSet(new SimpleRowSource() {
+            private int next;
+
+            @Override
+            public Object[] readRow() {
+                return next < rows.length ? rows[next++] : null;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void reset() {
+                next = 0;
+            }
+        });
+        if (labels != null) {
+            for (int i = 0; i < labels.length; i++) {
+                rs.addColumn(labels[i], types[i], 0, 0);
+            }
+            return rs;
+        }
+        int columns = rows.length == 0 ? 1 : rows[0].length;
+        for (int i = 1; i <= columns; i++) {
+            rs.addColumn("c" + i, Types.OTHER, 0, 0);
+        }
+        return rs;
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(CannedRowsDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,117 @@
+package com.server.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.event.NotificationHub;
+import com.server.model.Notification;
+import com.server.model.Post;
+import com.server.model.Prayer;
+import com.server.model.PrayerRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the list DAO methods against canned result sets, measuring the row mappers plus the JdbcTemplate work
+ * around them: what a page costs the server on top of the database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    private static final String CONTENT = "Please pray for my family as we go through a difficult season. " +
+            "We are trusting God for healing, provision and peace, and we are grateful for every prayer.";
+    private static final String AVATAR = "https://static.vecteezy.com/system/resources/previews/013/360/247/non_2x/default-avatar.jpg";
+
+    @Param({"20", "500"})
+    public int rows;
+
+    private PrayerRequestDao prayerRequestDao;
+    private PostDao postDao;
+    private NotificationDao notificationDao;
+    private PrayerDao prayerDao;
+
+    @Setup
+    public void setUp() {
+        Object[][] prayerRequests = new Object[rows][];
+        Object[][] posts = new Object[rows][];
+        Object[][] notifications = new Object[rows][];
+        Object[][] prayers = new Object[rows][];
+        Object[][] liked = new Object[rows / 3][];
+        for (int i = 0; i < rows; i++) {
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusMinutes(i));
+            prayerRequests[i] = new Object[] {i + 1, 7, "User 7", CONTENT, "Family", true, i % 5 == 0, null, createdAt,
+                    i % 40, AVATAR};
+            posts[i] = i % 10 == 9
+                    ? new Object[] {i + 1, 7, CONTENT, null, null, null, null, null, createdAt, "user7", AVATAR, 3, 1,
+                            i, 8, CONTENT, createdAt, "user8", AVATAR}
+                    : new Object[] {i + 1, 7, CONTENT, null, null, null, null, null, createdAt, "user7", AVATAR, 3, 1,
+                            null, null, null, null, null, null};
+            notifications[i] = new Object[] {i + 1, 7, "user8 and 2 others prayed for your request", i % 3 == 0,
+                    createdAt, 8, "PRAYER", i + 1, 3, new Integer[] {8, 9, 10}, new String[] {"user8", "user9", "user10"},
+                    "user8", AVATAR};
+            prayers[i] = new Object[] {i + 1, i + 1, 7, createdAt};
+        }
+        for (int i = 0; i < liked.length; i++) {
+            liked[i] = new Object[] {i * 3 + 1};
+        }
+
+        CannedRowsDataSource dataSource = new CannedRowsDataSource(sql -> {
+            if (sql.contains("FROM post_reactions")) {
+                return liked;
+            }
+            if (sql.contains("FROM posts")) {
+                return posts;
+            }
+            if (sql.contains("FROM notifications")) {
+                return notifications;
+            }
+            if (sql.contains("FROM prayer_requests")) {
+                return prayerRequests;
+            }
+            return prayers;
+        });
+        NotificationHub notificationHub = new NotificationHub(dataSource, new ObjectMapper(), false, 1000, 1, "", "", "");
+
+        prayerRequestDao = new JdbcPrayerRequestDao(dataSource);
+        postDao = new JdbcPostDao(dataSource);
+        notificationDao = new JdbcNotificationDao(dataSource, notificationHub);
+        prayerDao = new JdbcPrayerDao(dataSource);
+    }
+
+    @Benchmark
+    public List<PrayerRequestDto> prayerRequestPage() {
+        return prayerRequestDao.getPrayerRequestPage(null, null, null, rows);
+    }
+
+    @Benchmark
+    public List<Post> feedPage() {
+        return postDao.getAllPosts(7, null, rows);
+    }
+
+    @Benchmark
+    public List<Notification> notificationPage() {
+        return notificationDao.getNotificationPage(7, null, rows);
+    }
+
+    @Benchmark
+    public List<Prayer> prayersByUser() {
+        return prayerDao.getAllPrayersByUserId(7);
+    }
+}
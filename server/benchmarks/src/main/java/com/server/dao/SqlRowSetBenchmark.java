@@ -0,0 +1,98 @@
+package com.server.dao;
+
+import com.server.model.Comment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the same comment rows the way the DAOs used to, through queryForRowSet and column labels, and the way
+ * they do now, through JdbcCommentDao's RowMapper reading columns by index. Run with -prof gc to compare the
+ * allocation per query as well as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlRowSetBenchmark {
+
+    private static final String CONTENT = "Praying for you and your family this week. " +
+            "May you find peace and strength in the days ahead.";
+    private static final String AVATAR = "https://static.vecteezy.com/system/resources/previews/013/360/247/non_2x/default-avatar.jpg";
+
+    // JdbcCommentDao.getAllComments before it moved to a RowMapper
+    private static final String SQL = "SELECT c.id, c.prayer_request_id, c.user_id, c.content, c.created_at, " +
+                                      "u.display_name, u.profile_image " +
+                                      "FROM comments c " +
+                                      "JOIN users u ON c.user_id = u.id " +
+                                      "ORDER BY c.created_at DESC";
+
+    @Param({"20", "1000"})
+    public int rows;
+
+    private JdbcTemplate jdbcTemplate;
+    private CommentDao commentDao;
+
+    @Setup
+    public void setUp() {
+        Object[][] comments = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            comments[i] = new Object[] {i + 1, i / 5 + 1, 7, CONTENT,
+                    Timestamp.valueOf(LocalDateTime.now().minusMinutes(i)), "User 7", AVATAR};
+        }
+        CannedRowsDataSource dataSource = new CannedRowsDataSource(sql -> comments,
+                new String[] {"id", "prayer_request_id", "user_id", "content", "created_at", "display_name", "profile_image"},
+                new int[] {Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR});
+
+        jdbcTemplate = JdbcTemplates.create(dataSource);
+        commentDao = new JdbcCommentDao(dataSource);
+    }
+
+    @Benchmark
+    public List<Comment> sqlRowSet() {
+        List<Comment> comments = new ArrayList<>();
+        SqlRowSet results = jdbcTemplate.queryForRowSet(SQL);
+        while (results.next()) {
+            comments.add(mapRowToComment(results));
+        }
+        return comments;
+    }
+
+    @Benchmark
+    public List<Comment> rowMapper() {
+        return commentDao.getAllComments();
+    }
+
+    private static Comment mapRowToComment(SqlRowSet rs) {
+        Comment comment = new Comment();
+        comment.setId(rs.getInt("id"));
+        comment.setPrayerRequestId(rs.getInt("prayer_request_id"));
+        comment.setUserId(rs.getInt("user_id"));
+        comment.setContent(rs.getString("content"));
+        if (rs.getTimestamp("created_at") != null) {
+            comment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        }
+        comment.setUserName(rs.getString("display_name"));
+        comment.setUserProfileImage(rs.getString("profile_image"));
+        return comment;
+    }
+}
@@ -0,0 +1,65 @@
+package com.server.service;
+
+import com.server.model.PrayerStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The streak and total bookkeeping behind prayer badges, for users with 10, 1k and 100k prayers.
+ *
+ * recordPrayer is the per-prayer cost, which should not grow with the history; replayHistory builds the counters
+ * from scratch, as a backfill would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BadgeEngineBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int prayers;
+
+    private LocalDate[] days;
+
+    @Setup
+    public void setUp() {
+        // Two prayers a day, with a missed day after every 30 so streaks keep restarting
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        days = new LocalDate[prayers];
+        for (int i = 0; i < prayers; i++) {
+            int day = i / 2;
+            days[i] = start.plusDays(day + day / 30);
+        }
+    }
+
+    @Benchmark
+    public PrayerStats recordPrayer() {
+        LocalDate last = days[prayers - 1];
+        PrayerStats stats = new PrayerStats(42, prayers, 15, last);
+        BadgeEngine.advance(stats, last.plusDays(1));
+        return stats;
+    }
+
+    @Benchmark
+    public PrayerStats replayHistory() {
+        PrayerStats stats = new PrayerStats();
+        for (LocalDate day : days) {
+            BadgeEngine.advance(stats, day);
+        }
+        return stats;
+    }
+}
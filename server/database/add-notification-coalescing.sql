@@ -0,0 +1,17 @@
+-- Coalesced engagement notifications
+-- Prayers and comments on the same request merge into one unread row per recipient within a time window
+
+BEGIN TRANSACTION;
+
+ALTER TABLE notifications
+ADD COLUMN IF NOT EXISTS type VARCHAR(20),
+ADD COLUMN IF NOT EXISTS prayer_request_id INT,
+ADD COLUMN IF NOT EXISTS actor_count INT NOT NULL DEFAULT 1,
+ADD COLUMN IF NOT EXISTS actor_ids INT[] NOT NULL DEFAULT '{}',
+ADD COLUMN IF NOT EXISTS actor_names TEXT[] NOT NULL DEFAULT '{}';
+
+CREATE INDEX IF NOT EXISTS idx_notifications_coalesce
+ON notifications (user_id, prayer_request_id, type, created_at DESC)
+WHERE is_read = FALSE;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,12 @@
+-- Indexes for keyset-paginated notification lists and the read-notification retention job
+
+BEGIN TRANSACTION;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created_at_id
+ON notifications (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_read_created_at
+ON notifications (created_at)
+WHERE is_read = TRUE;
+
+COMMIT TRANSACTION;
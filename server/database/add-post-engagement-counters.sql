@@ -0,0 +1,15 @@
+-- Engagement counters on posts
+-- amen_count and comment_count are maintained by JdbcReactionDao and JdbcPostCommentDao,
+-- replacing the per-row COUNT(*) subqueries in the feed
+
+BEGIN TRANSACTION;
+
+ALTER TABLE posts
+ADD COLUMN IF NOT EXISTS amen_count INT NOT NULL DEFAULT 0,
+ADD COLUMN IF NOT EXISTS comment_count INT NOT NULL DEFAULT 0;
+
+UPDATE posts p
+SET amen_count = (SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p.id AND pr.type = 'AMEN'),
+    comment_count = (SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p.id);
+
+COMMIT TRANSACTION;
@@ -0,0 +1,4 @@
+-- Index backing the cursor-paginated community feed
+-- Serves ORDER BY created_at DESC, id DESC with a (created_at, id) < (?, ?) cursor as a range scan
+
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts(created_at DESC, id DESC);
@@ -0,0 +1,24 @@
+-- Daily per-user prayer buckets for the leaderboard
+-- prayer_activity was created keyed by day only and never written, so it is rebuilt keyed by (user_id, day)
+-- Maintained by JdbcPrayerDao on insert/delete and repaired nightly by CounterReconciliationJob
+
+BEGIN TRANSACTION;
+
+DROP TABLE IF EXISTS prayer_activity;
+
+CREATE TABLE prayer_activity (
+    user_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    prayer_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, day)
+);
+
+CREATE INDEX idx_prayer_activity_day ON prayer_activity (day);
+
+INSERT INTO prayer_activity (user_id, day, prayer_count)
+SELECT user_id, prayed_at::date, COUNT(*)
+FROM prayers
+WHERE user_id IS NOT NULL
+GROUP BY user_id, prayed_at::date;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,18 @@
+-- Denormalized prayer counter on prayer_requests
+-- Maintained by JdbcPrayerDao on insert/delete and repaired nightly by CounterReconciliationJob
+
+BEGIN TRANSACTION;
+
+ALTER TABLE prayer_requests
+ADD COLUMN IF NOT EXISTS prayer_count INT NOT NULL DEFAULT 0;
+
+UPDATE prayer_requests pr
+SET prayer_count = c.actual
+FROM (
+    SELECT prayer_request_id, COUNT(*) AS actual
+    FROM prayers
+    GROUP BY prayer_request_id
+) c
+WHERE c.prayer_request_id = pr.id;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,4 @@
+-- Index backing keyset pagination of the prayer-request wall
+-- Serves ORDER BY created_at DESC, id DESC with a (created_at, id) < (?, ?) cursor as a range scan
+
+CREATE INDEX IF NOT EXISTS idx_prayer_requests_created_at_id ON prayer_requests(created_at DESC, id DESC);
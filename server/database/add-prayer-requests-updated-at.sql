@@ -0,0 +1,15 @@
+-- Change stamp for the public prayer request list
+-- updated_at is set on every write to a prayer request (including its prayer_count), and
+-- COUNT(*) plus MAX(updated_at) serve as the ETag version stamp for GET /api/prayer-requests
+
+BEGIN TRANSACTION;
+
+ALTER TABLE prayer_requests
+ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+UPDATE prayer_requests SET updated_at = COALESCE(created_at, NOW());
+
+CREATE INDEX IF NOT EXISTS idx_prayer_requests_updated_at
+ON prayer_requests (updated_at);
+
+COMMIT TRANSACTION;
@@ -0,0 +1,22 @@
+-- Per-user unread notification counter
+-- Maintained by JdbcNotificationDao on create/mark-read and repaired nightly by CounterReconciliationJob
+
+BEGIN TRANSACTION;
+
+CREATE TABLE IF NOT EXISTS user_notification_state (
+    user_id INT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_count INT NOT NULL DEFAULT 0 CHECK (unread_count >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+ON notifications (user_id)
+WHERE is_read = FALSE;
+
+INSERT INTO user_notification_state (user_id, unread_count)
+SELECT user_id, COUNT(*)
+FROM notifications
+WHERE is_read = FALSE
+GROUP BY user_id
+ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count;
+
+COMMIT TRANSACTION;
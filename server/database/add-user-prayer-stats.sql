@@ -0,0 +1,41 @@
+-- Per-user prayer counters used by BadgeEngine
+-- current_streak is the length of the run of consecutive prayer days ending at last_prayer_date
+
+BEGIN TRANSACTION;
+
+CREATE TABLE IF NOT EXISTS user_prayer_stats (
+    user_id INT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    total_prayers INT NOT NULL DEFAULT 0,
+    current_streak INT NOT NULL DEFAULT 0,
+    last_prayer_date DATE
+);
+
+-- Backfill from existing prayers (gaps-and-islands: consecutive days share the same day - row_number)
+WITH days AS (
+    SELECT DISTINCT user_id, prayed_at::date AS day
+    FROM prayers
+    WHERE user_id IS NOT NULL AND prayed_at IS NOT NULL
+),
+islands AS (
+    SELECT user_id, day, day - (ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY day))::int AS island
+    FROM days
+),
+latest AS (
+    SELECT DISTINCT ON (user_id) user_id, MAX(day) AS last_day, COUNT(*) AS streak
+    FROM islands
+    GROUP BY user_id, island
+    ORDER BY user_id, MAX(day) DESC
+),
+totals AS (
+    SELECT user_id, COUNT(*) AS total
+    FROM prayers
+    WHERE user_id IS NOT NULL
+    GROUP BY user_id
+)
+INSERT INTO user_prayer_stats (user_id, total_prayers, current_streak, last_prayer_date)
+SELECT t.user_id, t.total, COALESCE(l.streak, 0), l.last_day
+FROM totals t
+LEFT JOIN latest l ON l.user_id = t.user_id
+ON CONFLICT (user_id) DO NOTHING;
+
+COMMIT TRANSACTION;
@@ -40,8 +40,10 @@ CREATE TABLE prayers (
 );
 
 CREATE TABLE prayer_activity (
-  day DATE PRIMARY KEY,
-  prayer_count INT NOT NULL DEFAULT 0
+  user_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  day DATE NOT NULL,
+  prayer_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, day)
 );
 
 CREATE TABLE notifications (
@@ -0,0 +1,181 @@
+// Capacity run against a database seeded by seed.sql; see run.sh.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e REQUESTS=250000 capacity.js
+//
+// -e VUS=200 -e DURATION=120s set the closed-loop concurrency. -e LOGIN_USERS=200 is how many seeded users are
+// logged in up front; every authenticated call picks one of them, so unread counts and feeds are spread over
+// that many users. -e REQUESTS must match the seeded prayer request count, new prayers land on ids up to it.
+//
+// Prints requests per second, p50 and p99 latency and the failure rate per endpoint, and writes the full k6
+// summary to $RESULTS/capacity.json.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+const LOGIN_USERS = parseInt(__ENV.LOGIN_USERS || '200');
+const SEEDED_USERS = parseInt(__ENV.USERS || '100000');
+const SEEDED_REQUESTS = parseInt(__ENV.REQUESTS || '250000');
+const PASSWORD = 'loadtest-password';
+const CATEGORIES = ['General', 'Healing', 'Family', 'Work', 'Guidance', 'Thanksgiving'];
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+// Weights of the scripted mix, roughly what the client does on a page view: mostly reads of the two feeds,
+// the unread badge on every page, the occasional prayer, and logins, which cost a bcrypt hash each
+const MIX = [
+  ['prayer-requests page', 35],
+  ['prayer-requests category', 10],
+  ['community posts', 20],
+  ['unread count', 15],
+  ['my prayers', 7],
+  ['pray', 8],
+  ['login', 5],
+];
+const TOTAL_WEIGHT = MIX.reduce((sum, [, weight]) => sum + weight, 0);
+
+// A threshold per endpoint is what makes k6 keep a separate metric for each name tag, which handleSummary reads;
+// the thresholds themselves always pass
+const thresholds = {};
+for (const [name] of MIX) {
+  thresholds[`http_req_duration{name:${name}}`] = ['max>=0'];
+  thresholds[`http_reqs{name:${name}}`] = ['count>=0'];
+  thresholds[`http_req_failed{name:${name}}`] = ['rate>=0'];
+}
+
+export const options = {
+  setupTimeout: '300s',
+  scenarios: {
+    mixed: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '20s', target: VUS },
+        { duration: __ENV.DURATION || '120s', target: VUS },
+        { duration: '5s', target: 0 },
+      ],
+      gracefulRampDown: '5s',
+    },
+  },
+  thresholds,
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function login(userNumber) {
+  return http.post(`${BASE_URL}/api/login`,
+      JSON.stringify({ email: `loadtest${userNumber}@example.com`, password: PASSWORD }),
+      { headers: JSON_HEADERS, tags: { name: 'setup login' } });
+}
+
+export function setup() {
+  const tokens = [];
+  // Spread the logged in users over the whole table rather than taking the first few ids
+  const step = Math.max(1, Math.floor(SEEDED_USERS / LOGIN_USERS));
+  for (let i = 0; i < LOGIN_USERS; i++) {
+    const res = login(i * step + 1);
+    if (check(res, { 'setup login ok': (r) => r.status === 200 })) {
+      tokens.push(res.json('token'));
+    }
+  }
+  if (tokens.length === 0) {
+    throw new Error('no seeded user could log in; was the database seeded with seed.sql?');
+  }
+  return { tokens };
+}
+
+function pick() {
+  let roll = Math.random() * TOTAL_WEIGHT;
+  for (const [name, weight] of MIX) {
+    roll -= weight;
+    if (roll < 0) {
+      return name;
+    }
+  }
+  return MIX[0][0];
+}
+
+function random(n) {
+  return Math.floor(Math.random() * n);
+}
+
+// Reads the first page and, like a user scrolling, sometimes follows nextCursor for another page or two
+function scroll(url, cursorParam, params) {
+  let res = http.get(url, params);
+  for (let pages = random(3); pages > 0 && res.status === 200; pages--) {
+    const next = res.json('nextCursor');
+    if (!next) {
+      break;
+    }
+    res = http.get(`${url}&${cursorParam}=${encodeURIComponent(next)}`, params);
+  }
+  return res;
+}
+
+export default function (data) {
+  const name = pick();
+  const auth = { Authorization: `Bearer ${data.tokens[random(data.tokens.length)]}` };
+  const tags = { name };
+  let res;
+
+  switch (name) {
+    case 'prayer-requests page':
+      res = scroll(`${BASE_URL}/api/prayer-requests?limit=20`, 'cursor', { tags });
+      break;
+    case 'prayer-requests category':
+      res = scroll(`${BASE_URL}/api/prayer-requests?limit=20&category=${CATEGORIES[random(CATEGORIES.length)]}`,
+          'cursor', { tags });
+      break;
+    case 'community posts':
+      res = scroll(`${BASE_URL}/api/community/posts?limit=10&before=`, 'before', { headers: auth, tags });
+      break;
+    case 'unread count':
+      res = http.get(`${BASE_URL}/api/notifications/unread-count`, { headers: auth, tags });
+      break;
+    case 'my prayers':
+      // Only ever authenticated: anonymously this endpoint returns every prayer in the table
+      res = http.get(`${BASE_URL}/api/prayers`, { headers: auth, tags });
+      break;
+    case 'pray':
+      // Favour recent requests like the seed does; a repeat prayer for the same request fails on the unique key,
+      // which is rare enough at these volumes to show up only as a sliver of the failure rate
+      res = http.post(`${BASE_URL}/api/prayers`,
+          JSON.stringify({ prayerRequestId: SEEDED_REQUESTS - random(Math.ceil(SEEDED_REQUESTS / 10)) }),
+          { headers: Object.assign({}, JSON_HEADERS, auth), tags });
+      break;
+    case 'login':
+      res = http.post(`${BASE_URL}/api/login`,
+          JSON.stringify({ email: `loadtest${random(SEEDED_USERS) + 1}@example.com`, password: PASSWORD }),
+          { headers: JSON_HEADERS, tags });
+      break;
+  }
+  check(res, { 'status 2xx/304': (r) => (r.status >= 200 && r.status < 300) || r.status === 304 });
+}
+
+function pad(value, width) {
+  return String(value).padStart(width);
+}
+
+export function handleSummary(data) {
+  const seconds = data.state.testRunDurationMs / 1000;
+  const lines = [`${'endpoint'.padEnd(26)} ${pad('req/s', 9)} ${pad('p50 ms', 9)} ${pad('p99 ms', 9)} ${pad('failed', 8)}`];
+  const row = (label, suffix) => {
+    const duration = data.metrics[`http_req_duration${suffix}`];
+    const reqs = data.metrics[`http_reqs${suffix}`];
+    const failed = data.metrics[`http_req_failed${suffix}`];
+    if (!duration || !reqs) {
+      return;
+    }
+    lines.push(`${label.padEnd(26)} ${pad((reqs.values.count / seconds).toFixed(1), 9)} ` +
+        `${pad(duration.values['p(50)'].toFixed(1), 9)} ${pad(duration.values['p(99)'].toFixed(1), 9)} ` +
+        `${pad(((failed ? failed.values.rate : 0) * 100).toFixed(2) + '%', 8)}`);
+  };
+  for (const [name] of MIX) {
+    row(name, `{name:${name}}`);
+  }
+  // The overall line includes the setup logins; they are a small share of a full-length run
+  row('all', '');
+
+  return {
+    stdout: lines.join('\n') + '\n',
+    [`${__ENV.RESULTS || 'results'}/capacity.json`]: JSON.stringify(data, null, 2),
+  };
+}
@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+# End-to-end capacity run: a local Postgres seeded at production-like volumes, the server jar on top of it, and
+# capacity.js driving the main endpoints. Prints req/s, p50/p99 latency and the failure rate per endpoint.
+#
+# Postgres runs in a postgres:16 container on port 55432 unless PGHOST is set, in which case the usual
+# PGHOST/PGPORT/PGUSER/PGPASSWORD/PGDATABASE variables point at an existing, empty or previously seeded database.
+# The schema comes from the Flyway migrations in src/main/resources/db/migration and is seeded with seed.sql
+# only if the users table is empty, so a kept database is reused as is. Needs docker (or PGHOST), psql, k6
+# and a JDK 17+.
+#
+#   ./run.sh                              # 100k users, 250k requests, 1M prayers, 200k posts; 200 VUs for 120s
+#   SCALE=0.1 VUS=50 DURATION=60s ./run.sh
+#   KEEP_DB=1 ./run.sh                    # leave the container running for the next run or for psql
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+RESULTS=loadtest/results
+CONTAINER=prayly-capacity-pg
+SERVER_PID=
+STARTED_DB=
+mkdir -p "$RESULTS"
+
+cleanup() {
+  if [ -n "$SERVER_PID" ]; then
+    kill "$SERVER_PID" 2>/dev/null || true
+  fi
+  if [ -n "$STARTED_DB" ] && [ -z "${KEEP_DB:-}" ]; then
+    docker rm -f "$CONTAINER" > /dev/null
+  fi
+}
+trap cleanup EXIT
+
+scaled() {
+  awk -v n="$1" -v s="${SCALE:-1}" 'BEGIN { v = int(n * s); print (v < 1 ? 1 : v) }'
+}
+USERS=$(scaled 100000)
+REQUESTS=$(scaled 250000)
+PRAYERS=$(scaled 1000000)
+POSTS=$(scaled 200000)
+
+if [ -z "${PGHOST:-}" ]; then
+  export PGHOST=localhost PGPORT=55432 PGUSER=postgres PGPASSWORD=postgres PGDATABASE=prayly
+  if ! docker inspect "$CONTAINER" > /dev/null 2>&1; then
+    docker run -d --name "$CONTAINER" -p "$PGPORT:5432" -e POSTGRES_PASSWORD="$PGPASSWORD" \
+        -e POSTGRES_DB="$PGDATABASE" postgres:16 -c shared_buffers=512MB -c max_connections=200 > /dev/null
+  else
+    docker start "$CONTAINER" > /dev/null
+  fi
+  STARTED_DB=1
+  for _ in $(seq 1 60); do
+    pg_isready -q && psql -X -q -c 'SELECT 1' > /dev/null 2>&1 && break
+    sleep 1
+  done
+fi
+
+PSQL="psql -X -q -v ON_ERROR_STOP=1"
+if [ "$($PSQL -At -c "SELECT to_regclass('users') IS NOT NULL")" = f ]; then
+  # The server's own Flyway run then baselines at V1 and finds V2's indexes already built
+  for migration in src/main/resources/db/migration/V*.sql; do
+    $PSQL -f "$migration"
+  done
+fi
+if [ "$($PSQL -At -c "SELECT EXISTS (SELECT 1 FROM users)")" = f ]; then
+  echo "Seeding $USERS users, $REQUESTS requests, $PRAYERS prayers, $POSTS posts"
+  $PSQL -v users="$USERS" -v requests="$REQUESTS" -v prayers="$PRAYERS" -v posts="$POSTS" -f loadtest/capacity/seed.sql
+else
+  # A kept database may have been seeded at another scale; the script has to aim at what is really there
+  USERS=$($PSQL -At -c "SELECT COUNT(*) FROM users")
+  REQUESTS=$($PSQL -At -c "SELECT MAX(id) FROM prayer_requests")
+fi
+
+sh ./mvnw -q -DskipTests package
+JAR=$(ls target/server-*-exec.jar | head -1)
+
+SPRING_DB_URL="jdbc:postgresql://${PGHOST}:${PGPORT:-5432}/${PGDATABASE}" \
+SPRING_DB_NAME="$PGDATABASE" SPRING_DB_USERNAME="${PGUSER}" SPRING_DB_PASSWORD="${PGPASSWORD:-}" \
+JWT_BASE64_SECRET="${JWT_BASE64_SECRET:-$(head -c 64 /dev/urandom | base64 | tr -d '\n')}" \
+JWT_SECRET="${JWT_SECRET:-$(head -c 64 /dev/urandom | base64 | tr -d '\n')}" \
+SENDGRID_API_KEY=unused SENDGRID_WELCOME_TEMPLATE_ID=unused SENDGRID_FROM_EMAIL=loadtest@example.com \
+SENDGRID_FROM_NAME=loadtest \
+  java -jar "$JAR" --server.port="$PORT" > "$RESULTS/capacity-server.log" 2>&1 &
+SERVER_PID=$!
+for _ in $(seq 1 120); do
+  curl -sf "$BASE_URL/api/bible-verses/daily" > /dev/null && break
+  sleep 1
+done
+
+k6 run --quiet -e BASE_URL="$BASE_URL" -e RESULTS="$RESULTS" -e USERS="$USERS" -e REQUESTS="$REQUESTS" \
+    -e VUS="${VUS:-200}" -e DURATION="${DURATION:-120s}" -e LOGIN_USERS="${LOGIN_USERS:-200}" \
+    loadtest/capacity/capacity.js
@@ -0,0 +1,102 @@
+-- Seed data for the capacity run; see run.sh. Expects the schema from db/migration and an empty database.
+--
+--   psql -v users=100000 -v requests=250000 -v prayers=1000000 -v posts=200000 -f seed.sql
+--
+-- Rows are generated deterministically (no random()), so every run seeds the same data. Every user's password
+-- is "loadtest-password" and their email is loadtest<N>@example.com.
+
+\set ON_ERROR_STOP on
+\timing on
+
+INSERT INTO users (name, display_name, email, password_hash, role, profile_image)
+SELECT 'Load Test ' || i, 'loadtest' || i, 'loadtest' || i || '@example.com',
+       '$2a$10$RAqbHbLfAawBkmqAfyHZ6uRzKLW7lzdlonLyt432arN2gRDWqkEUy', 'ROLE_USER',
+       'https://static.vecteezy.com/system/resources/previews/013/360/247/non_2x/default-avatar-photo-icon-social-media-profile-sign-symbol-vector.jpg'
+FROM generate_series(1, :users) i;
+
+-- Requests spread over the last year, newest first by id
+INSERT INTO prayer_requests (requester_id, name, content, category, created_at, updated_at, is_visible, is_answered, is_anonymous, answer_content)
+SELECT (i * 7) % :users + 1, 'Load Test ' || ((i * 7) % :users + 1),
+       'Please pray for my family as we go through a difficult season. We are trusting God for healing, ' ||
+       'provision and peace. Request ' || i,
+       (ARRAY['General', 'Healing', 'Family', 'Work', 'Guidance', 'Thanksgiving'])[i % 6 + 1],
+       NOW() - (:requests - i) * (INTERVAL '365 days' / :requests),
+       NOW() - (:requests - i) * (INTERVAL '365 days' / :requests),
+       TRUE, i % 5 = 0, i % 10 = 0, CASE WHEN i % 5 = 0 THEN 'Thank you all, this prayer was answered.' END
+FROM generate_series(1, :requests) i;
+
+-- Prayers land on recent requests far more often than old ones (r is skewed towards the newest ids), at most
+-- once per user and request, so a few collisions are dropped and the total comes out slightly under the requested count
+INSERT INTO prayers (prayer_request_id, user_id, prayed_at)
+SELECT r, u, created_at + (NOW() - created_at) * ((i * 7919) % 1000) / 1000.0
+FROM (
+    SELECT i,
+           :requests - ((i * 104729) % :requests) * ((i * 104729) % :requests) / :requests AS r,
+           (i / :requests + i * 7) % :users + 1 AS u
+    FROM generate_series(0::bigint, :prayers - 1) i
+) p
+JOIN prayer_requests pr ON pr.id = p.r
+ON CONFLICT (prayer_request_id, user_id) DO NOTHING;
+
+INSERT INTO comments (prayer_request_id, user_id, content, created_at)
+SELECT (i * 13) % :requests + 1, (i * 11) % :users + 1, 'Praying for you and your family.',
+       NOW() - (:requests - i) * (INTERVAL '365 days' / :requests)
+FROM generate_series(1, :requests) i;
+
+INSERT INTO posts (user_id, content, link_url, created_at)
+SELECT (i * 3) % :users + 1, 'Grateful for this community. Post ' || i,
+       CASE WHEN i % 7 = 0 THEN 'https://www.biblegateway.com/passage/?search=Philippians+4' END,
+       NOW() - (:posts - i) * (INTERVAL '365 days' / :posts)
+FROM generate_series(1, :posts) i;
+
+-- Every tenth post is a repost of the post before it
+UPDATE posts SET original_post_id = id - 1 WHERE id % 10 = 0;
+
+INSERT INTO post_comments (post_id, user_id, content, created_at)
+SELECT (i * 17) % :posts + 1, (i * 19) % :users + 1, 'Amen!', NOW() - (2 * :posts - i) * (INTERVAL '365 days' / (2 * :posts))
+FROM generate_series(1, 2 * :posts) i;
+
+INSERT INTO post_reactions (post_id, user_id, type)
+SELECT i % :posts + 1, (i / :posts * 7919 + i * 3) % :users + 1, 'AMEN'
+FROM generate_series(0, 3 * :posts - 1) i
+ON CONFLICT (post_id, user_id, type) DO NOTHING;
+
+-- Ten notifications per user over the last 90 days, two or three of each user's unread
+INSERT INTO notifications (user_id, message, sender_id, type, prayer_request_id, is_read, created_at, actor_ids, actor_names)
+SELECT i % :users + 1, 'loadtest' || ((i + 1) % :users + 1) || ' prayed for your request', (i + 1) % :users + 1,
+       'PRAYER', i % :requests + 1, (i / :users) % 4 <> 0, NOW() - (10 * :users - i) * (INTERVAL '90 days' / (10 * :users)),
+       ARRAY[(i + 1) % :users + 1], ARRAY['loadtest' || ((i + 1) % :users + 1)]
+FROM generate_series(1, 10 * :users) i;
+
+-- Denormalized counters, as the DAOs would have maintained them
+UPDATE prayer_requests pr
+SET prayer_count = c.n
+FROM (SELECT prayer_request_id, COUNT(*) AS n FROM prayers GROUP BY prayer_request_id) c
+WHERE c.prayer_request_id = pr.id;
+
+UPDATE posts p
+SET amen_count = r.n
+FROM (SELECT post_id, COUNT(*) AS n FROM post_reactions WHERE type = 'AMEN' GROUP BY post_id) r
+WHERE r.post_id = p.id;
+
+UPDATE posts p
+SET comment_count = c.n
+FROM (SELECT post_id, COUNT(*) AS n FROM post_comments GROUP BY post_id) c
+WHERE c.post_id = p.id;
+
+INSERT INTO prayer_activity (user_id, day, prayer_count)
+SELECT user_id, prayed_at::date, COUNT(*)
+FROM prayers
+GROUP BY user_id, prayed_at::date;
+
+INSERT INTO user_prayer_stats (user_id, total_prayers, current_streak, last_prayer_date)
+SELECT user_id, COUNT(*), 1, MAX(prayed_at)::date
+FROM prayers
+GROUP BY user_id;
+
+INSERT INTO user_notification_state (user_id, unread_count)
+SELECT user_id, COUNT(*) FILTER (WHERE NOT is_read)
+FROM notifications
+GROUP BY user_id;
+
+VACUUM ANALYZE;
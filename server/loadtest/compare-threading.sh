@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Runs threading.js against the server twice, once on platform threads and once with the virtual-threads
+# profile, and prints the throughput and latency of each run.
+#
+# Needs k6, a JDK 21+ on the PATH and the usual SPRING_DB_* / JWT_* environment variables pointing at a
+# database with data in it. Both runs use the same jar, built with the java21 profile, so the only
+# difference is spring.threads.virtual.enabled and the pool settings in application-virtual-threads.properties.
+#
+#   ./compare-threading.sh                  # 400 VUs for 60s per mode
+#   VUS=1000 DURATION=120s ./compare-threading.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+RESULTS=loadtest/results
+mkdir -p "$RESULTS"
+
+if [ "$(java -XshowSettings:properties -version 2>&1 | sed -n 's/.*java.specification.version = //p')" -lt 21 ]; then
+  echo "Java 21+ is required for the virtual-thread run" >&2
+  exit 1
+fi
+
+sh ./mvnw -q -Pjava21 -DskipTests package
+JAR=$(ls target/server-*-exec.jar | head -1)
+
+run_mode() {
+  local mode=$1 profiles=$2
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" > "$RESULTS/$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  for _ in $(seq 1 60); do
+    curl -sf "$BASE_URL/api/bible-verses/daily" > /dev/null && break
+    sleep 1
+  done
+  k6 run --quiet --summary-export "$RESULTS/$mode.json" -e BASE_URL="$BASE_URL" \
+      -e VUS="${VUS:-400}" -e DURATION="${DURATION:-60s}" \
+      ${EMAIL:+-e EMAIL="$EMAIL" -e PASSWORD="$PASSWORD"} loadtest/threading.js
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+for mode in platform virtual; do
+  python3 - "$RESULTS/$mode.json" "$mode" <<'PY'
+import json, sys
+m = json.load(open(sys.argv[1]))["metrics"]
+d = m["http_req_duration"]
+print(f"{sys.argv[2]:9} {m['http_reqs']['rate']:8.1f} req/s  p50 {d['p(50)']:7.1f} ms  p99 {d['p(99)']:7.1f} ms  "
+      f"failed {m['http_req_failed']['value'] * 100:5.2f}%")
+PY
+done
@@ -0,0 +1,11 @@
+-- JdbcPostDao.getAllPosts(currentUserId, before, limit), first page
+SELECT p.id, p.user_id, p.content, p.image_url, p.video_url, p.link_url, p.link_title, p.link_preview_img,
+       p.created_at, u.display_name, u.profile_image, p.amen_count, p.comment_count,
+       op.id, op.user_id, op.content, op.created_at, ou.display_name, ou.profile_image
+FROM posts p
+JOIN users u ON p.user_id = u.id
+LEFT JOIN posts op ON p.original_post_id = op.id
+LEFT JOIN users ou ON op.user_id = ou.id
+WHERE (p.created_at, p.id) < ('infinity'::timestamp, 2147483647)
+ORDER BY p.created_at DESC, p.id DESC
+LIMIT 11;
@@ -0,0 +1,8 @@
+-- JdbcPrayerRequestDao.getAllPrayerRequest, category filter variant
+\set c random(0, 5)
+SELECT pr.id, pr.requester_id, pr.name, pr.content, pr.category, pr.is_visible, pr.is_answered,
+       pr.answer_content, pr.created_at, pr.prayer_count, u.profile_image
+FROM prayer_requests pr
+LEFT JOIN users u ON u.id = pr.requester_id
+WHERE pr.category = (ARRAY['General','Healing','Peace','Gratitude','Family','Other'])[:c + 1]
+ORDER BY pr.created_at DESC;
@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Measures what server-side prepares save on the two heaviest DAO queries.
+#
+# pgbench runs each script three ways against the same database:
+#   simple    - one Query message per call, parsed and planned every time
+#   extended  - unnamed Parse/Bind/Execute per call; what the driver does with prepareThreshold=0
+#   prepared  - named statement parsed once per connection; what the server-prepares profile ends up doing
+# and the planning cost of a single call is shown with EXPLAIN (ANALYZE, SUMMARY).
+#
+# Needs pgbench/psql and a database with the schema and some data; connection settings come from the usual
+# PGHOST/PGPORT/PGUSER/PGDATABASE/PGPASSWORD variables.
+#
+#   CLIENTS=8 DURATION=30 ./run.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+CLIENTS=${CLIENTS:-8}
+DURATION=${DURATION:-30}
+
+for script in prayer_requests.sql posts_page.sql; do
+  echo "== $script"
+  grep -v -e '^\\' -e '^--' "$script" | sed 's/:c + 1/1/;1s/^/EXPLAIN (ANALYZE, SUMMARY) /' | psql -X -q -v ON_ERROR_STOP=1 \
+      | grep -E 'Planning Time|Execution Time'
+  for mode in simple extended prepared; do
+    printf '%-9s ' "$mode"
+    pgbench -n -M "$mode" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -f "$script" 2>/dev/null \
+        | grep -E '^(tps|latency average)' | tr '\n' ' '
+    echo
+  done
+done
@@ -0,0 +1,58 @@
+// Throughput comparison for platform vs virtual request threads; see compare-threading.sh.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 threading.js
+//
+// Optional: -e EMAIL=... -e PASSWORD=... adds authenticated calls (unread count) to the mix.
+// -e VUS=400 -e DURATION=60s set the closed-loop concurrency; keep it well above Tomcat's 200 worker threads
+// so the platform mode actually runs out of threads.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '400');
+
+export const options = {
+  scenarios: {
+    mixed: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '15s', target: VUS },
+        { duration: __ENV.DURATION || '60s', target: VUS },
+        { duration: '5s', target: 0 },
+      ],
+      gracefulRampDown: '5s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  if (!__ENV.EMAIL) {
+    return { token: null };
+  }
+  const res = http.post(`${BASE_URL}/api/login`,
+      JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+      { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'login ok': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const roll = Math.random();
+  let res;
+  // Mostly endpoints that block on Postgres; the leaderboard and daily verse are served from memory
+  if (roll < 0.45) {
+    res = http.get(`${BASE_URL}/api/prayer-requests?limit=20`, { tags: { name: 'prayer-requests page' } });
+  } else if (roll < 0.65) {
+    res = http.get(`${BASE_URL}/api/prayer-requests`, { tags: { name: 'prayer-requests list' } });
+  } else if (roll < 0.80) {
+    res = http.get(`${BASE_URL}/api/users/leaderboard?timeFrame=weekly`, { tags: { name: 'leaderboard' } });
+  } else if (roll < 0.90 || !data.token) {
+    res = http.get(`${BASE_URL}/api/bible-verses/daily`, { tags: { name: 'daily verse' } });
+  } else {
+    res = http.get(`${BASE_URL}/api/notifications/unread-count`,
+        { headers: { Authorization: `Bearer ${data.token}` }, tags: { name: 'unread count' } });
+  }
+  check(res, { 'status 2xx/304': (r) => (r.status >= 200 && r.status < 300) || r.status === 304 });
+}
@@ -0,0 +1,49 @@
+package com.server;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Logs at startup whether requests run on virtual or platform threads, and the connection pool they share.
+ *
+ * Spring Boot silently keeps platform threads when spring.threads.virtual.enabled is set on a JVM older than
+ * 21, so that case is reported as a warning rather than left to show up as thread starvation under load.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    private final Environment environment;
+    private final DataSource dataSource;
+
+    public ThreadingModeReporter(Environment environment, DataSource dataSource) {
+        this.environment = environment;
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        String pool = "unknown";
+        if (dataSource instanceof HikariDataSource hikari) {
+            pool = hikari.getMaximumPoolSize() + " connections, " + hikari.getConnectionTimeout() + "ms wait";
+        }
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            LOG.info("Handling requests on virtual threads; database pool {}", pool);
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            LOG.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads. "
+                    + "Run on Java 21+ (mvn -Pjava21) to enable them", Runtime.version().feature());
+        } else {
+            LOG.info("Handling requests on platform threads; database pool {}", pool);
+        }
+    }
+}
@@ -6,8 +6,9 @@ import com.server.model.LoginDto;
 import com.server.model.LoginResponseDto;
 import com.server.model.RegisterUserDto;
 import com.server.model.User;
+import com.server.security.UserModelDetailsService.AuthenticatedUser;
 import com.server.security.jwt.TokenProvider;
-import com.server.service.EmailService;
+import com.server.service.RegistrationService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,13 +32,13 @@ public class AuthenticationController {
     private final TokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
     private UserDao userDao;
-    private EmailService emailService;
+    private RegistrationService registrationService;
 
-    public AuthenticationController(TokenProvider tokenProvider, AuthenticationManager authenticationManager, UserDao userDao, EmailService emailService) {
+    public AuthenticationController(TokenProvider tokenProvider, AuthenticationManager authenticationManager, UserDao userDao, RegistrationService registrationService) {
         this.tokenProvider = tokenProvider;
         this.authenticationManager = authenticationManager;
         this.userDao = userDao;
-        this.emailService = emailService;
+        this.registrationService = registrationService;
     }
 
     @RequestMapping(path = "/login", method = RequestMethod.POST)
@@ -50,7 +51,9 @@ public class AuthenticationController {
 
             if(authentication.isAuthenticated()){
                 String jwt = tokenProvider.createToken(authentication, false);
-                User user = userDao.getUserByEmail(loginDto.getEmail());
+                User user = authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser
+                        ? authenticatedUser.getUser()
+                        : userDao.getUserByEmail(loginDto.getEmail());
                 return new LoginResponseDto(jwt, user);
             }
 
@@ -82,17 +85,8 @@ public class AuthenticationController {
 
 
         try {
-            User user = userDao.createUser(new User(newUser.getName(), newUser.getDisplayName(), lowerCaseEmail, newUser.getPassword(), newUser.getRole()));
-
-            
-            // Send welcome email asynchronously (don't block registration response)
-            try {
-                emailService.sendWelcomeEmail(user.getEmail(), user.getName());
-            } catch (Exception emailException) {
-                // Log but don't fail registration if email fails
-                System.err.println("Failed to send welcome email: " + emailException.getMessage());
-            }
-            
+            // The welcome email is queued in the same transaction and sent by EmailOutboxDispatcher
+            User user = registrationService.registerUser(new User(newUser.getName(), newUser.getDisplayName(), lowerCaseEmail, newUser.getPassword(), newUser.getRole()));
             return user;
         }
         catch (DaoException e) {
@@ -1,13 +1,12 @@
 package com.server.controller;
 
 import com.server.dao.BadgeDao;
-import com.server.dao.UserDao;
 import com.server.model.Badge;
+import com.server.security.CurrentUser;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -16,17 +15,14 @@ import java.util.List;
 public class BadgeController {
 
     private final BadgeDao badgeDao;
-    private final UserDao userDao;
 
-    public BadgeController(BadgeDao badgeDao, UserDao userDao) {
+    public BadgeController(BadgeDao badgeDao) {
         this.badgeDao = badgeDao;
-        this.userDao = userDao;
     }
 
     @GetMapping("/my")
-    public List<Badge> getMyBadges(Principal principal) {
-        if (principal == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
-        int userId = userDao.getUserByEmail(principal.getName()).getId();
+    public List<Badge> getMyBadges(@CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
         return badgeDao.getBadgesByUserId(userId);
     }
 
@@ -1,40 +1,67 @@
 package com.server.controller;
 
-import com.server.dao.BibleVerseDao;
 import com.server.model.BibleVerse;
+import com.server.service.BibleVerseCatalogue;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 @RestController
 @CrossOrigin
 @RequestMapping("/api/bible-verses")
 public class BibleVerseController {
 
-    private final BibleVerseDao bibleVerseDao;
+    private final BibleVerseCatalogue bibleVerseCatalogue;
 
-    public BibleVerseController(BibleVerseDao bibleVerseDao) {
-        this.bibleVerseDao = bibleVerseDao;
+    public BibleVerseController(BibleVerseCatalogue bibleVerseCatalogue) {
+        this.bibleVerseCatalogue = bibleVerseCatalogue;
     }
 
     @GetMapping("/daily")
-    public BibleVerse getDailyVerse() {
-        BibleVerse verse = bibleVerseDao.getDailyVerse();
+    public ResponseEntity<BibleVerse> getDailyVerse(WebRequest webRequest) {
+        String etag = bibleVerseCatalogue.getDailyVerseTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        BibleVerse verse = bibleVerseCatalogue.getDailyVerse();
         if (verse == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No daily verse available.");
         }
-        return verse;
+        // The verse only changes at midnight, so caches may keep it until then
+        Duration untilMidnight = Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(untilMidnight).cachePublic())
+                .body(verse);
     }
 
     @GetMapping("/random")
     public BibleVerse getRandomVerse() {
-        BibleVerse verse = bibleVerseDao.getRandomVerse();
+        BibleVerse verse = bibleVerseCatalogue.getRandomVerse();
         if (verse == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No random verse available.");
         }
         return verse;
     }
+
+    /**
+     * Reloads the in-memory verse catalogue after bible_verses has been edited. Returns the number of verses loaded.
+     */
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public int reloadVerses() {
+        return bibleVerseCatalogue.reload();
+    }
 }
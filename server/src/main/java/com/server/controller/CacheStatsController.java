@@ -0,0 +1,31 @@
+package com.server.controller;
+
+import com.server.dao.DaoCaches;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/admin")
+public class CacheStatsController {
+
+    private final DaoCaches daoCaches;
+
+    public CacheStatsController(DaoCaches daoCaches) {
+        this.daoCaches = daoCaches;
+    }
+
+    /**
+     * Size, hit, miss and eviction counts of each DAO cache since startup, for tuning dao-cache.* sizes.
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return daoCaches.getStats();
+    }
+}
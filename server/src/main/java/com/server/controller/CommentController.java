@@ -1,17 +1,20 @@
 package com.server.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.server.dao.CommentDao;
-import com.server.dao.NotificationDao;
-import com.server.dao.PrayerRequestDao;
-import com.server.dao.UserDao;
+import com.server.event.CommentCreatedEvent;
 import com.server.model.Comment;
 import com.server.model.User;
+import com.server.security.CurrentUser;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -20,15 +23,13 @@ import java.util.List;
 public class CommentController {
 
     private final CommentDao commentDao;
-    private final UserDao userDao;
-    private final NotificationDao notificationDao;
-    private final PrayerRequestDao prayerRequestDao;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
-    public CommentController(CommentDao commentDao, UserDao userDao, NotificationDao notificationDao, PrayerRequestDao prayerRequestDao) {
+    public CommentController(CommentDao commentDao, ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
         this.commentDao = commentDao;
-        this.userDao = userDao;
-        this.notificationDao = notificationDao;
-        this.prayerRequestDao = prayerRequestDao;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/prayer-requests/{requestId}/comments")
@@ -39,9 +40,7 @@ public class CommentController {
     @PreAuthorize("isAuthenticated()")
     @PostMapping("/comments")
     @ResponseStatus(HttpStatus.CREATED)
-    public Comment createComment(@RequestBody Comment comment, Principal principal) {
-        // Get the logged in user
-        User user = userDao.getUserByEmail(principal.getName());
+    public Comment createComment(@RequestBody Comment comment, @CurrentUser User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
         }
@@ -51,45 +50,38 @@ public class CommentController {
         
         Comment createdComment = commentDao.createComment(comment);
 
-        // Notify the prayer request owner
-        try {
-            var prayerRequest = prayerRequestDao.getPrayerRequestById(comment.getPrayerRequestId());
-            if (prayerRequest != null && prayerRequest.getRequesterId() != user.getId()) {
-                String message = user.getDisplayName() + " commented on your prayer request: " + prayerRequest.getName();
-                
-                // Truncate if too long (optional safety, though DB is TEXT)
-                if (message.length() > 255) {
-                    message = message.substring(0, 252) + "...";
-                }
-
-                var notification = new com.server.model.Notification();
-                notification.setUserId(prayerRequest.getRequesterId());
-                notification.setMessage(message);
-                notification.setSenderId(user.getId()); // Set the sender ID
-                notificationDao.createNotification(notification);
-            }
-        } catch (Exception e) {
-            // Log error but don't fail the comment creation
-            System.err.println("Failed to create notification for comment: " + e.getMessage());
-        }
+        // Notify the prayer request owner once the comment is saved, off the request thread
+        eventPublisher.publishEvent(new CommentCreatedEvent(comment.getPrayerRequestId(), user.getId(), user.getDisplayName()));
 
         return createdComment;
     }
 
+    /**
+     * Every comment for the admin view, written as a JSON array while it is read from the database.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/comments", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllComments() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonStreams.array(objectMapper, commentDao::streamAllComments));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping("/comments")
-    public List<Comment> getAllComments() {
-        return commentDao.getAllComments();
+    @GetMapping(path = "/comments", produces = JsonStreams.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllComments() {
+        return ResponseEntity.ok()
+                .contentType(JsonStreams.NDJSON)
+                .body(JsonStreams.ndjson(objectMapper, commentDao::streamAllComments));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/comments/{id}")
-    public void deleteComment(@PathVariable int id, Principal principal) {
+    public void deleteComment(@PathVariable int id, @CurrentUser User user) {
         // Build access control logic: Admin can delete any, User can delete their own
         // For now, simpler implementation relying on frontend to only show delete button for authorized users
         // But stricter:
-        User user = userDao.getUserByEmail(principal.getName());
         boolean isAdmin = "ROLE_ADMIN".equals(user.getRole());
         
         if (!isAdmin) {
@@ -108,8 +100,7 @@ public class CommentController {
 
     @PreAuthorize("isAuthenticated()")
     @PutMapping("/comments/{id}")
-    public Comment updateComment(@PathVariable int id, @RequestBody java.util.Map<String, String> body, Principal principal) {
-        User user = userDao.getUserByEmail(principal.getName());
+    public Comment updateComment(@PathVariable int id, @RequestBody java.util.Map<String, String> body, @CurrentUser User user) {
         if (user == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
         }
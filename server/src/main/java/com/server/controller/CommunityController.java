@@ -3,16 +3,17 @@ package com.server.controller;
 import com.server.dao.PostCommentDao;
 import com.server.dao.PostDao;
 import com.server.dao.ReactionDao;
-import com.server.dao.UserDao;
+import com.server.model.CursorPage;
+import com.server.model.PageCursor;
 import com.server.model.Post;
 import com.server.model.PostComment;
 import com.server.model.User;
+import com.server.security.CurrentUser;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -21,28 +22,61 @@ import java.util.List;
 @RequestMapping("/api/community")
 public class CommunityController {
 
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final PostDao postDao;
     private final PostCommentDao commentDao;
     private final ReactionDao reactionDao;
-    private final UserDao userDao;
 
-    public CommunityController(PostDao postDao, PostCommentDao commentDao, ReactionDao reactionDao, UserDao userDao) {
+    public CommunityController(PostDao postDao, PostCommentDao commentDao, ReactionDao reactionDao) {
         this.postDao = postDao;
         this.commentDao = commentDao;
         this.reactionDao = reactionDao;
-        this.userDao = userDao;
     }
 
     @GetMapping("/posts")
-    public List<Post> getFeed(Principal principal, @RequestParam(defaultValue = "10") int limit, @RequestParam(defaultValue = "0") int offset) {
-        int userId = getCurrentUserId(principal);
+    public List<Post> getFeed(@CurrentUser Integer currentUserId, @RequestParam(defaultValue = "10") int limit, @RequestParam(defaultValue = "0") int offset) {
+        int userId = requireUserId(currentUserId);
         return postDao.getAllPosts(userId, limit, offset);
     }
 
+    /**
+     * Cursor mode of the feed, selected by the before parameter. Send an empty before for the first page,
+     * then pass back the nextCursor of the previous page. Unlike offset paging this is unaffected by posts
+     * created while the user is scrolling.
+     */
+    @GetMapping(path = "/posts", params = "before")
+    public CursorPage<Post> getFeedPage(@CurrentUser Integer currentUserId, @RequestParam(required = false) String before, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor cursor = null;
+        if (before != null && !before.isEmpty()) {
+            try {
+                cursor = PageCursor.decode(before);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        int userId = requireUserId(currentUserId);
+        List<Post> posts = postDao.getAllPosts(userId, cursor, limit + 1);
+
+        String nextCursor = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            Post last = posts.get(limit - 1);
+            if (last.getCreatedAt() != null) {
+                nextCursor = new PageCursor(last.getCreatedAt().toLocalDateTime(), last.getId()).encode();
+            }
+        }
+        return new CursorPage<>(posts, nextCursor);
+    }
+
     @PostMapping("/posts")
     @ResponseStatus(HttpStatus.CREATED)
-    public Post createPost(@RequestBody Post post, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public Post createPost(@RequestBody Post post, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         post.setUserId(userId);
         
         // Validate that at least content, media, or originalPostId is provided
@@ -61,16 +95,16 @@ public class CommunityController {
 
     @PutMapping("/posts/{postId}")
     @ResponseStatus(HttpStatus.OK)
-    public Post updatePost(@PathVariable int postId, @RequestBody Post post, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public Post updatePost(@PathVariable int postId, @RequestBody Post post, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         post.setId(postId);
         return postDao.updatePost(post, userId);
     }
 
     @DeleteMapping("/posts/{postId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deletePost(@PathVariable int postId, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public void deletePost(@PathVariable int postId, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         // Add check for admin or owner
         postDao.deletePost(postId, userId);
     }
@@ -82,8 +116,8 @@ public class CommunityController {
 
     @PostMapping("/posts/{postId}/comments")
     @ResponseStatus(HttpStatus.CREATED)
-    public PostComment createComment(@PathVariable int postId, @RequestBody PostComment comment, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public PostComment createComment(@PathVariable int postId, @RequestBody PostComment comment, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         comment.setUserId(userId);
         comment.setPostId(postId);
         return commentDao.createComment(comment);
@@ -91,9 +125,8 @@ public class CommunityController {
 
     @DeleteMapping("/comments/{commentId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteComment(@PathVariable int commentId, Principal principal) {
-        int userId = getCurrentUserId(principal);
-        User user = userDao.getUserByEmail(principal.getName());
+    public void deleteComment(@PathVariable int commentId, @CurrentUser User user) {
+        int userId = getCurrentUserId(user);
         boolean isAdmin = "ROLE_ADMIN".equals(user.getRole());
 
         if (isAdmin) {
@@ -105,8 +138,8 @@ public class CommunityController {
 
     @PostMapping("/posts/{postId}/react")
     @ResponseStatus(HttpStatus.OK)
-    public void toggleReaction(@PathVariable int postId, @RequestParam(defaultValue = "AMEN") String type, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public void toggleReaction(@PathVariable int postId, @RequestParam(defaultValue = "AMEN") String type, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         // Simplistic toggle logic can be handled here or in frontend. For now, we'll assume the frontend calls add/remove appropriately, 
         // or we can implement a toggle check.
         // But for "Amen", it's usually a toggle. 
@@ -118,19 +151,22 @@ public class CommunityController {
 
     @DeleteMapping("/posts/{postId}/react")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void removeReaction(@PathVariable int postId, @RequestParam(defaultValue = "AMEN") String type, Principal principal) {
-        int userId = getCurrentUserId(principal);
+    public void removeReaction(@PathVariable int postId, @RequestParam(defaultValue = "AMEN") String type, @CurrentUser Integer currentUserId) {
+        int userId = requireUserId(currentUserId);
         reactionDao.removeReaction(postId, userId, type);
     }
 
-    private int getCurrentUserId(Principal principal) {
-        if (principal == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
-        }
-        User user = userDao.getUserByEmail(principal.getName());
+    private int getCurrentUserId(User user) {
         if (user == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User not found for email: " + principal.getName());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
         }
         return user.getId();
     }
+
+    private int requireUserId(Integer currentUserId) {
+        if (currentUserId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+        return currentUserId;
+    }
 }
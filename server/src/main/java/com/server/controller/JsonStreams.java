@@ -0,0 +1,73 @@
+package com.server.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows to the response as they are read instead of collecting them into a list first, so the memory
+ * used by a response does not grow with the size of the table behind it.
+ *
+ * The source is handed a consumer and is expected to call it once per row as it reads them. Sources should read
+ * in short chunks rather than hold a connection open while rows are written to a slow client. Once the
+ * first bytes are sent the status can no longer change, so a failure part way through ends the response early
+ * and the client sees truncated output.
+ */
+final class JsonStreams {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private JsonStreams() {}
+
+    /**
+     * A single JSON array, the same document a List would have serialized to.
+     */
+    static <T> StreamingResponseBody array(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            try (JsonGenerator generator = createGenerator(objectMapper, out)) {
+                generator.writeStartArray();
+                source.accept(row -> write(generator, row));
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * One JSON document per line, so clients can process rows before the response has finished.
+     */
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            try (JsonGenerator generator = createGenerator(objectMapper, out)) {
+                generator.setRootValueSeparator(null);
+                source.accept(row -> {
+                    write(generator, row);
+                    try {
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
+    // The servlet container owns the response stream, so closing the generator only flushes it
+    private static JsonGenerator createGenerator(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static void write(JsonGenerator generator, Object row) {
+        try {
+            generator.writeObject(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
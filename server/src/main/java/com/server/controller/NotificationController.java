@@ -1,48 +1,125 @@
 package com.server.controller;
 
 import com.server.dao.NotificationDao;
-import com.server.dao.UserDao;
+import com.server.event.NotificationHub;
+import com.server.model.CursorPage;
 import com.server.model.Notification;
-import com.server.model.User;
+import com.server.model.PageCursor;
+import com.server.security.CurrentUser;
+import com.server.security.StreamTickets;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @CrossOrigin
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final NotificationDao notificationDao;
-    private final UserDao userDao;
+    private final NotificationHub notificationHub;
+    private final StreamTickets streamTickets;
 
-    public NotificationController(NotificationDao notificationDao, UserDao userDao) {
+    public NotificationController(NotificationDao notificationDao, NotificationHub notificationHub, StreamTickets streamTickets) {
         this.notificationDao = notificationDao;
-        this.userDao = userDao;
+        this.notificationHub = notificationHub;
+        this.streamTickets = streamTickets;
     }
 
     @GetMapping("")
-    public List<Notification> getMyNotifications(Principal principal) {
-        if (principal == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
-        int userId = userDao.getUserByEmail(principal.getName()).getId();
+    public List<Notification> getMyNotifications(@CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
         return notificationDao.getNotificationsByUserId(userId);
     }
 
+    /**
+     * Keyset-paginated variant of the list, selected when a before parameter is supplied. Start with an empty
+     * before, then pass back the nextCursor of the previous page.
+     */
+    @GetMapping(path = "", params = "before")
+    public CursorPage<Notification> getNotificationPage(@CurrentUser Integer userId, @RequestParam(required = false) String before, @RequestParam(defaultValue = "20") int limit) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor cursor = null;
+        if (before != null && !before.isEmpty()) {
+            try {
+                cursor = PageCursor.decode(before);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        List<Notification> notifications = notificationDao.getNotificationPage(userId, cursor, limit + 1);
+
+        String nextCursor = null;
+        if (notifications.size() > limit) {
+            notifications = notifications.subList(0, limit);
+            Notification last = notifications.get(limit - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(notifications, nextCursor);
+    }
+
     @GetMapping("/unread-count")
-    public int getUnreadCount(Principal principal) {
-        if (principal == null) return 0;
-        int userId = userDao.getUserByEmail(principal.getName()).getId();
+    public int getUnreadCount(@CurrentUser Integer userId) {
+        if (userId == null) return 0;
         return notificationDao.getUnreadCount(userId);
     }
 
+    /**
+     * Issues a single-use ticket for opening the stream, passed as its ticket parameter. EventSource cannot send
+     * the Authorization header, and a short-lived ticket is harmless once it shows up in a logged URL.
+     */
+    @PostMapping("/stream-ticket")
+    public Map<String, String> issueStreamTicket(@CurrentUser Integer userId, Authentication authentication) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        return Map.of("ticket", streamTickets.issue(authentication));
+    }
+
+    /**
+     * Server-Sent Events stream of the caller's notifications. The first event is "unread-count" with the current
+     * count, followed by a "notification" event for every new notification, so clients no longer need to poll.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        return notificationHub.subscribe(userId, notificationDao.getUnreadCount(userId));
+    }
+
     @PutMapping("/{id}/read")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void markAsRead(@PathVariable int id, Principal principal) {
-        if (principal == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
-        // Ideally check ownership
-        notificationDao.markAsRead(id);
+    public void markAsRead(@PathVariable int id, @CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        notificationDao.markAsRead(userId, List.of(id));
+    }
+
+    /**
+     * Marks a set of the caller's notifications read in one statement. Ids belonging to other users are ignored.
+     */
+    @PutMapping("/read")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markManyAsRead(@RequestBody List<Integer> ids, @CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_PAGE_SIZE + " ids per request");
+        }
+        notificationDao.markAsRead(userId, ids);
+    }
+
+    @PutMapping("/read-all")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markAllAsRead(@CurrentUser Integer userId) {
+        if (userId == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        notificationDao.markAllAsRead(userId);
     }
 }
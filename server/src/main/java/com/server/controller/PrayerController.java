@@ -1,16 +1,21 @@
 package com.server.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.server.exception.DaoException;
 import com.server.model.Prayer;
+import com.server.model.User;
+import com.server.security.CurrentUser;
 import com.server.service.PrayerService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
 import java.util.List;
 
 @CrossOrigin
@@ -19,30 +24,43 @@ import java.util.List;
 public class PrayerController {
 
     private final PrayerService prayerService;
+    private final ObjectMapper objectMapper;
 
-    public PrayerController(PrayerService prayerService){
+    public PrayerController(PrayerService prayerService, ObjectMapper objectMapper){
         this.prayerService = prayerService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("")
-    public List<Prayer> listPrayers (Principal principal){
+    public List<Prayer> listPrayers (@CurrentUser User user){
         List<Prayer> prayers;
 
         try{
-            prayers = prayerService.getAllPrayers(principal);
+            prayers = prayerService.getAllPrayers(user);
         }catch (DaoException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); //Status Code: 500 = API itself has a problem and can't fulfill the request at this time
         }
         return prayers;
     }
 
-    @GetMapping("/public")
-    public List<Prayer> listPublicPrayers(){
-        try {
-            return prayerService.getAllPublicPrayers();
-        } catch (DaoException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
-        }
+    /**
+     * Every prayer, written as a JSON array while it is read from the database rather than built as a list.
+     */
+    @GetMapping(path = "/public", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listPublicPrayers(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonStreams.array(objectMapper, prayerService::streamAllPublicPrayers));
+    }
+
+    /**
+     * The same prayers as newline-delimited JSON, for clients that want to process them as they arrive.
+     */
+    @GetMapping(path = "/public", produces = JsonStreams.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPublicPrayers(){
+        return ResponseEntity.ok()
+                .contentType(JsonStreams.NDJSON)
+                .body(JsonStreams.ndjson(objectMapper, prayerService::streamAllPublicPrayers));
     }
 
     @GetMapping("/{id}")
@@ -59,11 +77,11 @@ public class PrayerController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("")
-    public Prayer createPrayer(@Valid @RequestBody Prayer newPrayer, Principal principal){
+    public Prayer createPrayer(@Valid @RequestBody Prayer newPrayer, @CurrentUser User user){
         Prayer prayer  = null;
 
         try{
-            prayer = prayerService.createPrayer(newPrayer, principal);
+            prayer = prayerService.createPrayer(newPrayer, user);
         }catch (DaoException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); //Status Code: 500 = API itself has a problem and can't fulfill the request at this time
         }
@@ -73,10 +91,10 @@ public class PrayerController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
-    public void deletePrayer(@PathVariable int id, Principal principal){
+    public void deletePrayer(@PathVariable int id, @CurrentUser User user){
 
         try {
-            int deletedRows = prayerService.deletePrayer(id, principal);
+            int deletedRows = prayerService.deletePrayer(id, user);
             if (deletedRows == 0) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Prayer request not found"); //Status Code: 404 = The given URL doesn't point to a valid resource
             }
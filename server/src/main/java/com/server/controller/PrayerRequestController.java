@@ -2,17 +2,25 @@ package com.server.controller;
 
 
 import com.server.exception.DaoException;
+import com.server.model.CursorPage;
 import com.server.model.PrayerRequest;
 import com.server.model.PrayerRequestDto;
+import com.server.model.User;
+import com.server.security.CurrentUser;
 import com.server.service.PrayerRequestService;
 import com.server.service.PrayerService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.security.Principal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 
@@ -21,22 +29,49 @@ import java.util.List;
 @RestController
 public class PrayerRequestController {
 
+    // Short enough that a shared cache never serves a noticeably stale list; revalidation is a 304 after that
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(10)).cachePublic();
+
     private final PrayerRequestService prayerRequestService;
 
     public PrayerRequestController (PrayerRequestService prayerRequestService){
         this.prayerRequestService = prayerRequestService;
     }
 
+    /**
+     * The ETag is derived from a version stamp of the whole prayer_requests table and the users' profiles plus
+     * the filters, so an If-None-Match that still matches is answered with 304 without running the list query.
+     */
     @GetMapping("")
-    public List<PrayerRequestDto> listPrayerRequest (Principal principal, @RequestParam(required = false) String category, @RequestParam(required = false) Boolean isAnswered){
+    public ResponseEntity<List<PrayerRequestDto>> listPrayerRequest (@RequestParam(required = false) String category, @RequestParam(required = false) Boolean isAnswered,
+                                                                     WebRequest webRequest){
         List<PrayerRequestDto> prayerRequestDtos;
 
         try{
-            prayerRequestDtos = prayerRequestService.getAllPrayerRequestDto(principal, category, isAnswered);
+            String version = prayerRequestService.getPrayerRequestListVersion() + "|" + category + "|" + isAnswered;
+            String etag = "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            prayerRequestDtos = prayerRequestService.getAllPrayerRequestDto(category, isAnswered);
+            return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(prayerRequestDtos);
         }catch (DaoException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); //Status Code: 500 = API itself has a problem and can't fulfill the request at this time
         }
-        return prayerRequestDtos;
+    }
+
+    /**
+     * Keyset-paginated variant of the list, selected when a limit is supplied. Pass the returned
+     * nextCursor back as the cursor parameter to fetch the following page.
+     */
+    @GetMapping(path = "", params = "limit")
+    public CursorPage<PrayerRequestDto> listPrayerRequestPage (@RequestParam(required = false) String category, @RequestParam(required = false) Boolean isAnswered,
+                                                               @RequestParam(required = false) String cursor, @RequestParam int limit){
+        try{
+            return prayerRequestService.getPrayerRequestPage(category, isAnswered, cursor, limit);
+        }catch (DaoException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -53,12 +88,12 @@ public class PrayerRequestController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("")
-    public PrayerRequest createPrayerRequest(@Valid @RequestBody PrayerRequest newPrayerRequest, Principal principal){
+    public PrayerRequest createPrayerRequest(@Valid @RequestBody PrayerRequest newPrayerRequest, @CurrentUser User user){
 
         PrayerRequest prayerRequest = null;
 
         try{
-            prayerRequest = prayerRequestService.createPrayerRequest(newPrayerRequest, principal);
+            prayerRequest = prayerRequestService.createPrayerRequest(newPrayerRequest, user);
         }catch (DaoException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); //Status Code: 500 = API itself has a problem and can't fulfill the request at this time
         }
@@ -68,10 +103,10 @@ public class PrayerRequestController {
 
     @ResponseStatus(HttpStatus.OK)
     @PutMapping("/{id}")
-    public PrayerRequest updatePrayerRequest(@PathVariable int id, @Valid @RequestBody PrayerRequest prayerRequest, Principal principal){
+    public PrayerRequest updatePrayerRequest(@PathVariable int id, @Valid @RequestBody PrayerRequest prayerRequest, @CurrentUser User user){
         prayerRequest.setId(id);
         try{
-            return prayerRequestService.updatePrayerRequest(prayerRequest, principal);
+            return prayerRequestService.updatePrayerRequest(prayerRequest, user);
         }catch (DaoException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
@@ -80,10 +115,10 @@ public class PrayerRequestController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
-    public void deletePrayerRequest(@PathVariable int id, Principal principal){
+    public void deletePrayerRequest(@PathVariable int id, @CurrentUser User user){
 
         try{
-            int deletedRows = prayerRequestService.deletePrayerRequest(id, principal);
+            int deletedRows = prayerRequestService.deletePrayerRequest(id, user);
             if (deletedRows == 0){
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Prayer request not found"); //Status Code: 404 = The given URL doesn't point to a valid resource
             }
@@ -1,8 +1,15 @@
 package com.server.controller;
 
 import com.server.dao.UserDao;
+import com.server.model.User;
+import com.server.security.CurrentUser;
+import com.server.service.LeaderboardService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -11,9 +18,11 @@ import java.util.Map;
 public class UserController {
 
     private final UserDao userDao;
+    private final LeaderboardService leaderboardService;
 
-    public UserController(UserDao userDao) {
+    public UserController(UserDao userDao, LeaderboardService leaderboardService) {
         this.userDao = userDao;
+        this.leaderboardService = leaderboardService;
     }
 
     @PutMapping("/profile-image")
@@ -24,7 +33,7 @@ public class UserController {
     }
 
     @PutMapping("/users/profile")
-    public void updateUserProfile(@RequestBody Map<String, String> body, Principal principal) {
+    public void updateUserProfile(@RequestBody Map<String, String> body, @CurrentUser User user) {
         String name = body.get("name");
         String displayName = body.get("displayName");
 
@@ -34,15 +43,21 @@ public class UserController {
         if (name != null && name.length() > 50) throw new IllegalArgumentException("Name too long");
         if (displayName != null && displayName.length() > 50) throw new IllegalArgumentException("Spiritual Name too long");
 
-        com.server.model.User user = userDao.getUserByEmail(principal.getName());
         if (user != null) {
             userDao.updateUserProfile(user.getId(), name, displayName, profileImage);
         }
     }
 
     @GetMapping("/users/leaderboard")
-    public java.util.List<com.server.model.LeaderboardDto> getLeaderboard(@RequestParam(defaultValue = "all") String timeFrame) {
-        // Default limit to 10 for now
-        return userDao.getTopPrayerWarriors(timeFrame, 10);
+    public ResponseEntity<java.util.List<com.server.model.LeaderboardDto>> getLeaderboard(@RequestParam(defaultValue = "all") String timeFrame, WebRequest webRequest) {
+        LeaderboardService.Board board = leaderboardService.getBoard(timeFrame);
+        if (webRequest.checkNotModified(board.etag())) {
+            return null;
+        }
+        // The snapshot is rebuilt about once a minute, so caches may hold it for that long
+        return ResponseEntity.ok()
+                .eTag(board.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic())
+                .body(board.entries());
     }
 }
@@ -6,5 +6,6 @@ import java.util.List;
 public interface BadgeDao {
     List<Badge> getBadgesByUserId(int userId);
     void awardBadge(int userId, String criteria);
+    void awardBadges(int userId, List<String> criteria);
     boolean hasBadge(int userId, String criteria);
 }
@@ -2,9 +2,14 @@ package com.server.dao;
 
 import com.server.model.BibleVerse;
 
+import java.util.List;
+
 public interface BibleVerseDao {
 
-    BibleVerse getDailyVerse();
-    
-    BibleVerse getRandomVerse();
+    List<BibleVerse> getAllVerses();
+
+    /**
+     * A cheap fingerprint of the bible_verses table that changes when verses are added or removed.
+     */
+    String getCatalogueVersion();
 }
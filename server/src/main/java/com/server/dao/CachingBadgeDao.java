@@ -0,0 +1,49 @@
+package com.server.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.server.model.Badge;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Caches each user's earned badges in front of JdbcBadgeDao; awarding a badge evicts that user's list.
+ */
+@Primary
+@Repository
+public class CachingBadgeDao implements BadgeDao {
+
+    private final BadgeDao delegate;
+    private final DaoCaches daoCaches;
+    private final Cache<Integer, List<Badge>> byUserId;
+
+    public CachingBadgeDao(@Qualifier("jdbcBadgeDao") BadgeDao delegate, DaoCaches daoCaches) {
+        this.delegate = delegate;
+        this.daoCaches = daoCaches;
+        this.byUserId = daoCaches.create("badges-by-user");
+    }
+
+    @Override
+    public List<Badge> getBadgesByUserId(int userId) {
+        return byUserId.get(userId, id -> List.copyOf(delegate.getBadgesByUserId(id)));
+    }
+
+    @Override
+    public void awardBadge(int userId, String criteria) {
+        daoCaches.evict(byUserId, userId);
+        delegate.awardBadge(userId, criteria);
+    }
+
+    @Override
+    public void awardBadges(int userId, List<String> criteria) {
+        daoCaches.evict(byUserId, userId);
+        delegate.awardBadges(userId, criteria);
+    }
+
+    @Override
+    public boolean hasBadge(int userId, String criteria) {
+        return delegate.hasBadge(userId, criteria);
+    }
+}
@@ -0,0 +1,89 @@
+package com.server.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.server.model.PageCursor;
+import com.server.model.PrayerRequest;
+import com.server.model.PrayerRequestDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Caches getPrayerRequestById in front of JdbcPrayerRequestDao.
+ *
+ * Callers get their own copy of the cached request, since the update path edits the request it fetched before
+ * saving it.
+ */
+@Primary
+@Repository
+public class CachingPrayerRequestDao implements PrayerRequestDao {
+
+    private final PrayerRequestDao delegate;
+    private final DaoCaches daoCaches;
+    private final Cache<Integer, PrayerRequest> byId;
+
+    public CachingPrayerRequestDao(@Qualifier("jdbcPrayerRequestDao") PrayerRequestDao delegate, DaoCaches daoCaches) {
+        this.delegate = delegate;
+        this.daoCaches = daoCaches;
+        this.byId = daoCaches.create("prayer-requests");
+    }
+
+    @Override
+    public List<PrayerRequestDto> getAllPrayerRequest(String category, Boolean isAnswered) {
+        return delegate.getAllPrayerRequest(category, isAnswered);
+    }
+
+    @Override
+    public List<PrayerRequestDto> getPrayerRequestPage(String category, Boolean isAnswered, PageCursor after, int limit) {
+        return delegate.getPrayerRequestPage(category, isAnswered, after, limit);
+    }
+
+    @Override
+    public List<PrayerRequestDto> getAllPrayerRequestByRequesterId(int requesterId) {
+        return delegate.getAllPrayerRequestByRequesterId(requesterId);
+    }
+
+    @Override
+    public PrayerRequest getPrayerRequestById(int id) {
+        return copy(byId.get(id, delegate::getPrayerRequestById));
+    }
+
+    @Override
+    public PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest) {
+        return delegate.createPrayerRequest(newPrayerRequest);
+    }
+
+    @Override
+    public PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest) {
+        PrayerRequest updated = delegate.updatePrayerRequest(prayerRequest);
+        daoCaches.evict(byId, prayerRequest.getId());
+        return updated;
+    }
+
+    @Override
+    public int deletePrayerRequest(int id) {
+        int deleted = delegate.deletePrayerRequest(id);
+        daoCaches.evict(byId, id);
+        return deleted;
+    }
+
+    @Override
+    public int reconcilePrayerCounts() {
+        return delegate.reconcilePrayerCounts();
+    }
+
+    @Override
+    public String getPrayerRequestListVersion() {
+        return delegate.getPrayerRequestListVersion();
+    }
+
+    private PrayerRequest copy(PrayerRequest p) {
+        if (p == null) {
+            return null;
+        }
+        return new PrayerRequest(p.getId(), p.getRequesterId(), p.getName(), p.getContent(), p.getCreatedAt(),
+                p.getVisible(), p.getAnonymous(), p.getCategory(), p.getAnswered(), p.getAnswerContent());
+    }
+}
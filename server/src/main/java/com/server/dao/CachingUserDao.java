@@ -0,0 +1,86 @@
+package com.server.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.server.model.LeaderboardDto;
+import com.server.model.User;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Caches getUserById and getUserByEmail in front of JdbcUserDao. Unknown emails are not cached, so registering
+ * an address is visible immediately.
+ *
+ * Callers get their own copy of the cached user, so nothing they set on it leaks into what the next request
+ * reads. The update methods write first and evict after, so a lookup racing the write cannot cache the old row
+ * once the write has landed.
+ */
+@Primary
+@Repository
+public class CachingUserDao implements UserDao {
+
+    private final UserDao delegate;
+    private final DaoCaches daoCaches;
+    private final Cache<Integer, User> byId;
+    private final Cache<String, User> byEmail;
+
+    public CachingUserDao(@Qualifier("jdbcUserDao") UserDao delegate, DaoCaches daoCaches) {
+        this.delegate = delegate;
+        this.daoCaches = daoCaches;
+        this.byId = daoCaches.create("users-by-id");
+        this.byEmail = daoCaches.create("users-by-email");
+    }
+
+    @Override
+    public List<User> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public User getUserById(int id) {
+        return copy(byId.get(id, delegate::getUserById));
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return copy(byEmail.get(email == null ? "" : email, delegate::getUserByEmail));
+    }
+
+    @Override
+    public User createUser(User user) {
+        return delegate.createUser(user);
+    }
+
+    @Override
+    public void updateProfileImage(String email, String imageUrl) {
+        delegate.updateProfileImage(email, imageUrl);
+        daoCaches.evict(byEmail, email);
+        byId.asMap().values().stream()
+                .filter(user -> user.getEmail().equals(email))
+                .forEach(user -> daoCaches.evict(byId, user.getId()));
+    }
+
+    @Override
+    public void updateUserProfile(int userId, String name, String displayName, String profileImage) {
+        delegate.updateUserProfile(userId, name, displayName, profileImage);
+        daoCaches.evict(byId, userId);
+        byEmail.asMap().values().stream()
+                .filter(user -> user.getId() == userId)
+                .forEach(user -> daoCaches.evict(byEmail, user.getEmail()));
+    }
+
+    @Override
+    public List<LeaderboardDto> getTopPrayerWarriors(String timeFrame, int limit) {
+        return delegate.getTopPrayerWarriors(timeFrame, limit);
+    }
+
+    private User copy(User u) {
+        if (u == null) {
+            return null;
+        }
+        return new User(u.getId(), u.getName(), u.getDisplayName(), u.getEmail(), u.getHashedPassword(), u.getRole(),
+                u.getProfileImage());
+    }
+}
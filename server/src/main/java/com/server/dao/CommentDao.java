@@ -2,11 +2,13 @@ package com.server.dao;
 
 import com.server.model.Comment;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CommentDao {
     List<Comment> getCommentsByRequestId(int requestId);
     Comment createComment(Comment comment);
     List<Comment> getAllComments();
+    void streamAllComments(Consumer<Comment> action);
     int deleteComment(int commentId);
     Comment updateComment(int commentId, String content);
     Comment getCommentById(int commentId);
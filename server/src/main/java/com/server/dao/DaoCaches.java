@@ -0,0 +1,77 @@
+package com.server.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates and tracks the local read-through caches used by the Caching*Dao decorators.
+ *
+ * Every cache is size-bounded and expires entries after a TTL, which also bounds how stale another node's cache
+ * can get. Sizes and TTLs default to dao-cache.max-size and dao-cache.ttl-seconds and can be overridden per cache
+ * with dao-cache.&lt;name&gt;.max-size and dao-cache.&lt;name&gt;.ttl-seconds.
+ */
+@Component
+public class DaoCaches {
+
+    private final Environment environment;
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public DaoCaches(Environment environment) {
+        this.environment = environment;
+    }
+
+    public <K, V> Cache<K, V> create(String name) {
+        long maxSize = environment.getProperty("dao-cache." + name + ".max-size", Long.class,
+                environment.getProperty("dao-cache.max-size", Long.class, 10000L));
+        long ttlSeconds = environment.getProperty("dao-cache." + name + ".ttl-seconds", Long.class,
+                environment.getProperty("dao-cache.ttl-seconds", Long.class, 60L));
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        caches.put(name, cache);
+        return cache;
+    }
+
+    /**
+     * Evicts the key now and again once the surrounding transaction commits, so a read that runs between the
+     * write and the commit cannot leave the old row cached.
+     */
+    public <K> void evict(Cache<K, ?> cache, K key) {
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            CacheStats cacheStats = entry.getValue().stats();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("size", entry.getValue().estimatedSize());
+            values.put("hits", cacheStats.hitCount());
+            values.put("misses", cacheStats.missCount());
+            values.put("hitRate", cacheStats.hitRate());
+            values.put("evictions", cacheStats.evictionCount());
+            stats.put(entry.getKey(), values);
+        });
+        return stats;
+    }
+}
@@ -0,0 +1,13 @@
+package com.server.dao;
+
+import com.server.model.OutboxEmail;
+
+import java.util.List;
+
+public interface EmailOutboxDao {
+    void enqueueEmail(String kind, String recipientEmail, String recipientName);
+    List<OutboxEmail> claimDueEmails(int limit, int leaseSeconds);
+    void markSent(int id);
+    void scheduleRetry(int id, String error, int delaySeconds);
+    void markFailed(int id, String error);
+}
@@ -4,11 +4,12 @@ import com.server.exception.DaoException;
 import com.server.model.Badge;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
 
 @Repository
@@ -17,20 +18,17 @@ public class JdbcBadgeDao implements BadgeDao {
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcBadgeDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
     public List<Badge> getBadgesByUserId(int userId) {
-        List<Badge> badges = new ArrayList<>();
-        String sql = "SELECT b.*, ub.awarded_at FROM badges b " +
+        List<Badge> badges;
+        String sql = "SELECT b.id, b.name, b.description, b.icon_url, b.criteria, ub.awarded_at FROM badges b " +
                      "JOIN user_badges ub ON b.id = ub.badge_id " +
                      "WHERE ub.user_id = ?";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, userId);
-            while (results.next()) {
-                badges.add(mapRowToBadge(results));
-            }
+            badges = jdbcTemplate.query(sql, this::mapRowToBadge, userId);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -49,6 +47,18 @@ public class JdbcBadgeDao implements BadgeDao {
         }
     }
 
+    @Override
+    public void awardBadges(int userId, List<String> criteria) {
+        String sql = "INSERT INTO user_badges (user_id, badge_id) " +
+                     "SELECT ?, id FROM badges WHERE criteria = ANY(?) " +
+                     "ON CONFLICT DO NOTHING";
+        try {
+            jdbcTemplate.update(sql, userId, criteria.toArray(new String[0]));
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
     @Override
     public boolean hasBadge(int userId, String criteria) {
         String sql = "SELECT COUNT(*) FROM user_badges ub " +
@@ -62,16 +72,17 @@ public class JdbcBadgeDao implements BadgeDao {
         }
     }
 
-    private Badge mapRowToBadge(SqlRowSet rs) {
+    private Badge mapRowToBadge(ResultSet rs, int rowNum) throws SQLException {
         Badge b = new Badge();
-        b.setId(rs.getInt("id"));
-        b.setName(rs.getString("name"));
-        b.setDescription(rs.getString("description"));
-        b.setIconUrl(rs.getString("icon_url"));
-        b.setCriteria(rs.getString("criteria"));
-        if (rs.getTimestamp("awarded_at") != null) {
-            b.setAwardedAt(rs.getTimestamp("awarded_at").toLocalDateTime());
+        b.setId(rs.getInt(1));
+        b.setName(rs.getString(2));
+        b.setDescription(rs.getString(3));
+        b.setIconUrl(rs.getString(4));
+        b.setCriteria(rs.getString(5));
+        Timestamp awardedAt = rs.getTimestamp(6);
+        if (awardedAt != null) {
+            b.setAwardedAt(awardedAt.toLocalDateTime());
         }
         return b;
     }
-}
+}
\ No newline at end of file
@@ -5,12 +5,14 @@ import com.server.model.Comment;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class JdbcCommentDao implements CommentDao {
@@ -18,12 +20,12 @@ public class JdbcCommentDao implements CommentDao {
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcCommentDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
     public List<Comment> getCommentsByRequestId(int requestId) {
-        List<Comment> comments = new ArrayList<>();
+        List<Comment> comments;
         String sql = "SELECT c.id, c.prayer_request_id, c.user_id, c.content, c.created_at, " +
                      "u.display_name, u.profile_image " +
                      "FROM comments c " +
@@ -31,10 +33,7 @@ public class JdbcCommentDao implements CommentDao {
                      "WHERE c.prayer_request_id = ? " +
                      "ORDER BY c.created_at ASC";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, requestId);
-            while (results.next()) {
-                comments.add(mapRowToComment(results));
-            }
+            comments = jdbcTemplate.query(sql, this::mapRowToComment, requestId);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -43,23 +42,49 @@ public class JdbcCommentDao implements CommentDao {
 
     @Override
     public List<Comment> getAllComments() {
-        List<Comment> comments = new ArrayList<>();
+        List<Comment> comments;
         String sql = "SELECT c.id, c.prayer_request_id, c.user_id, c.content, c.created_at, " +
                      "u.display_name, u.profile_image " +
                      "FROM comments c " +
                      "JOIN users u ON c.user_id = u.id " +
                      "ORDER BY c.created_at DESC";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql);
-            while (results.next()) {
-                comments.add(mapRowToComment(results));
-            }
+            comments = jdbcTemplate.query(sql, this::mapRowToComment);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
         return comments;
     }
 
+    /**
+     * Hands every comment to the action, newest first, reading FETCH_SIZE rows per statement so the table is never
+     * held in memory. Each chunk is its own short query, so no connection is held while the action writes rows
+     * to a slow client. Chunks are keyed on the primary key, which follows creation order; a created_at keyset
+     * would have no index to use across the whole table.
+     */
+    @Override
+    public void streamAllComments(Consumer<Comment> action) {
+        String sql = "SELECT c.id, c.prayer_request_id, c.user_id, c.content, c.created_at, " +
+                     "u.display_name, u.profile_image " +
+                     "FROM (SELECT id, prayer_request_id, user_id, content, created_at FROM comments " +
+                     "WHERE id < ? AND user_id IS NOT NULL ORDER BY id DESC LIMIT ?) c " +
+                     "JOIN users u ON c.user_id = u.id " +
+                     "ORDER BY c.id DESC";
+        try {
+            int before = Integer.MAX_VALUE;
+            List<Comment> chunk;
+            do {
+                chunk = jdbcTemplate.query(sql, this::mapRowToComment, before, JdbcTemplates.FETCH_SIZE);
+                chunk.forEach(action);
+                if (!chunk.isEmpty()) {
+                    before = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == JdbcTemplates.FETCH_SIZE);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
     @Override
     public Comment createComment(Comment comment) {
         String sql = "INSERT INTO comments (prayer_request_id, user_id, content) VALUES (?, ?, ?) RETURNING id";
@@ -93,9 +118,9 @@ public class JdbcCommentDao implements CommentDao {
                      "JOIN users u ON c.user_id = u.id " +
                      "WHERE c.id = ?";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, id);
-            if (results.next()) {
-                comment = mapRowToComment(results);
+            List<Comment> results = jdbcTemplate.query(sql, this::mapRowToComment, id);
+            if (!results.isEmpty()) {
+                comment = results.get(0);
             }
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
@@ -119,18 +144,20 @@ public class JdbcCommentDao implements CommentDao {
         }
     }
 
-    private Comment mapRowToComment(SqlRowSet rs) {
+    // Column order of every comment query: c.id, c.prayer_request_id, c.user_id, c.content, c.created_at, u.display_name, u.profile_image
+    private Comment mapRowToComment(ResultSet rs, int rowNum) throws SQLException {
         Comment comment = new Comment();
-        comment.setId(rs.getInt("id"));
-        comment.setPrayerRequestId(rs.getInt("prayer_request_id"));
-        comment.setUserId(rs.getInt("user_id"));
-        comment.setContent(rs.getString("content"));
-        if (rs.getTimestamp("created_at") != null) {
-            comment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        comment.setId(rs.getInt(1));
+        comment.setPrayerRequestId(rs.getInt(2));
+        comment.setUserId(rs.getInt(3));
+        comment.setContent(rs.getString(4));
+        Timestamp createdAt = rs.getTimestamp(5);
+        if (createdAt != null) {
+            comment.setCreatedAt(createdAt.toLocalDateTime());
         }
         
-        comment.setUserName(rs.getString("display_name"));
-        comment.setUserProfileImage(rs.getString("profile_image"));
+        comment.setUserName(rs.getString(6));
+        comment.setUserProfileImage(rs.getString(7));
         return comment;
     }
 }
@@ -0,0 +1,95 @@
+package com.server.dao;
+
+import com.server.exception.DaoException;
+import com.server.model.OutboxEmail;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+public class JdbcEmailOutboxDao implements EmailOutboxDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcEmailOutboxDao(DataSource dataSource) {
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
+    }
+
+    @Override
+    public void enqueueEmail(String kind, String recipientEmail, String recipientName) {
+        String sql = "INSERT INTO email_outbox (kind, recipient_email, recipient_name) VALUES (?, ?, ?)";
+        try {
+            jdbcTemplate.update(sql, kind, recipientEmail, recipientName);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Claims up to limit pending emails that are due, counting the attempt and hiding them from other
+     * dispatchers for leaseSeconds. If the process dies mid-send the lease runs out and the email is retried.
+     */
+    @Override
+    public List<OutboxEmail> claimDueEmails(int limit, int leaseSeconds) {
+        List<OutboxEmail> emails;
+        String sql = "UPDATE email_outbox SET attempts = attempts + 1, " +
+                     "next_attempt_at = NOW() + make_interval(secs => ?) " +
+                     "WHERE id IN (" +
+                     "SELECT id FROM email_outbox " +
+                     "WHERE status = 'PENDING' AND next_attempt_at <= NOW() " +
+                     "ORDER BY next_attempt_at " +
+                     "LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                     "RETURNING id, kind, recipient_email, recipient_name, attempts";
+        try {
+            emails = jdbcTemplate.query(sql, this::mapRowToOutboxEmail, leaseSeconds, limit);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+        return emails;
+    }
+
+    @Override
+    public void markSent(int id) {
+        String sql = "UPDATE email_outbox SET status = 'SENT', sent_at = NOW(), last_error = NULL WHERE id = ?";
+        try {
+            jdbcTemplate.update(sql, id);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    @Override
+    public void scheduleRetry(int id, String error, int delaySeconds) {
+        String sql = "UPDATE email_outbox SET last_error = ?, next_attempt_at = NOW() + make_interval(secs => ?) WHERE id = ?";
+        try {
+            jdbcTemplate.update(sql, error, delaySeconds, id);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    @Override
+    public void markFailed(int id, String error) {
+        String sql = "UPDATE email_outbox SET status = 'FAILED', last_error = ? WHERE id = ?";
+        try {
+            jdbcTemplate.update(sql, error, id);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    private OutboxEmail mapRowToOutboxEmail(ResultSet rs, int rowNum) throws SQLException {
+        OutboxEmail email = new OutboxEmail();
+        email.setId(rs.getInt(1));
+        email.setKind(rs.getString(2));
+        email.setRecipientEmail(rs.getString(3));
+        email.setRecipientName(rs.getString(4));
+        email.setAttempts(rs.getInt(5));
+        return email;
+    }
+}
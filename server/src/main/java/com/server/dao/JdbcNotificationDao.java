@@ -1,38 +1,67 @@
 package com.server.dao;
 
+import com.server.event.NotificationHub;
 import com.server.exception.DaoException;
 import com.server.model.Notification;
+import com.server.model.PageCursor;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
 
 @Repository
 public class JdbcNotificationDao implements NotificationDao {
 
+    private static final String NOTIFICATION_COLUMNS = "id, user_id, message, is_read, created_at, sender_id, type, " +
+            "prayer_request_id, actor_count, actor_ids, actor_names";
+    private static final String NOTIFICATION_WITH_SENDER = "SELECT n.id, n.user_id, n.message, n.is_read, n.created_at, " +
+            "n.sender_id, n.type, n.prayer_request_id, n.actor_count, n.actor_ids, n.actor_names, u.display_name, u.profile_image ";
+
     private final JdbcTemplate jdbcTemplate;
+    private final NotificationHub notificationHub;
 
-    public JdbcNotificationDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    public JdbcNotificationDao(DataSource dataSource, NotificationHub notificationHub) {
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
+        this.notificationHub = notificationHub;
     }
 
     @Override
     public List<Notification> getNotificationsByUserId(int userId) {
-        List<Notification> notifications = new ArrayList<>();
-        String sql = "SELECT n.*, u.display_name as sender_name, u.profile_image as sender_image " +
+        List<Notification> notifications;
+        String sql = NOTIFICATION_WITH_SENDER +
                      "FROM notifications n " +
                      "LEFT JOIN users u ON n.sender_id = u.id " +
                      "WHERE n.user_id = ? " +
                      "ORDER BY n.created_at DESC";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, userId);
-            while (results.next()) {
-                notifications.add(mapRowToNotification(results));
-            }
+            notifications = jdbcTemplate.query(sql, this::mapRowToNotification, userId);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+        return notifications;
+    }
+
+    @Override
+    public List<Notification> getNotificationPage(int userId, PageCursor before, int limit) {
+        List<Notification> notifications;
+        // The page is cut from notifications first so the sender join only runs for the rows returned
+        String sql = NOTIFICATION_WITH_SENDER +
+                     "FROM (SELECT " + NOTIFICATION_COLUMNS + " FROM notifications " +
+                     "WHERE user_id = ? AND (created_at, id) < (?, ?) " +
+                     "ORDER BY created_at DESC, id DESC LIMIT ?) n " +
+                     "LEFT JOIN users u ON n.sender_id = u.id " +
+                     "ORDER BY n.created_at DESC, n.id DESC";
+
+        try {
+            notifications = jdbcTemplate.query(sql, this::mapRowToNotification,
+                    userId, JdbcTemplates.cursorCreatedAt(before), JdbcTemplates.cursorId(before), limit);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -40,52 +69,226 @@ public class JdbcNotificationDao implements NotificationDao {
     }
 
     @Override
+    @Transactional
     public void createNotification(Notification notification) {
-        String sql = "INSERT INTO notifications (user_id, message, sender_id) VALUES (?, ?, ?)";
+        String sql = "INSERT INTO notifications (user_id, message, sender_id, type, prayer_request_id, actor_count, actor_ids, actor_names) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id, created_at";
+        String counterSql = "INSERT INTO user_notification_state (user_id, unread_count) VALUES (?, 1) " +
+                            "ON CONFLICT (user_id) DO UPDATE SET unread_count = user_notification_state.unread_count + 1";
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                notification.setId(rs.getInt(1));
+                Timestamp createdAt = rs.getTimestamp(2);
+                if (createdAt != null) {
+                    notification.setCreatedAt(createdAt.toLocalDateTime());
+                }
+            }, notification.getUserId(), notification.getMessage(), notification.getSenderId(),
+                    notification.getType(), notification.getPrayerRequestId(), notification.getActorCount(),
+                    notification.getActorIds().toArray(new Integer[0]), notification.getActorNames().toArray(new String[0]));
+            jdbcTemplate.update(counterSql, notification.getUserId());
+            notificationHub.publish(notification);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Finds the caller's newest unread notification of the given type about the given prayer request created
+     * within the window, and locks it so concurrent events merge into it one at a time. Must run in a transaction.
+     *
+     * When there is no such row yet, FOR UPDATE has nothing to lock, so the recipient and request are first
+     * serialized with a transaction-scoped advisory lock; otherwise two concurrent first events would both
+     * insert a row. The window runs from created_at, which a merge never moves, so it closes window minutes
+     * after the first actor however busy the request is.
+     */
+    @Override
+    public Notification getCoalescableNotification(int userId, String type, int prayerRequestId, int windowMinutes) {
+        String lockSql = "SELECT pg_advisory_xact_lock(?, ?)";
+        String sql = "SELECT " + NOTIFICATION_COLUMNS + ", NULL, NULL FROM notifications n " +
+                     "WHERE n.user_id = ? AND n.type = ? AND n.prayer_request_id = ? AND n.is_read = FALSE " +
+                     "AND n.created_at > NOW() - make_interval(mins => ?) " +
+                     "ORDER BY n.created_at DESC LIMIT 1 FOR UPDATE";
+        try {
+            jdbcTemplate.query(lockSql, rs -> {}, userId, prayerRequestId);
+            List<Notification> result = jdbcTemplate.query(sql, this::mapRowToNotification, userId, type, prayerRequestId, windowMinutes);
+            return result.isEmpty() ? null : result.get(0);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Stores a merged notification in place. created_at stays the first actor's time, so the row keeps its
+     * position under clients paging by (created_at, id), and it is still the one unread notification it was,
+     * so the unread counter does not change.
+     */
+    @Override
+    public void updateCoalescedNotification(Notification notification) {
+        String sql = "UPDATE notifications SET message = ?, sender_id = ?, actor_count = ?, actor_ids = ?, actor_names = ? " +
+                     "WHERE id = ?";
+        try {
+            jdbcTemplate.update(sql, notification.getMessage(), notification.getSenderId(),
+                    notification.getActorCount(), notification.getActorIds().toArray(new Integer[0]),
+                    notification.getActorNames().toArray(new String[0]), notification.getId());
+            notificationHub.publish(notification);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Marks the given notifications read. Ids that belong to another user are ignored, as are ones that are
+     * already read, so only rows that actually flip move the unread counter.
+     */
+    @Override
+    @Transactional
+    public int markAsRead(int userId, List<Integer> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE notifications SET is_read = TRUE WHERE user_id = ? AND id = ANY(?) AND is_read = FALSE";
+        try {
+            int updated = jdbcTemplate.update(sql, userId, notificationIds.toArray(new Integer[0]));
+            if (updated > 0) {
+                decrementUnreadCount(userId, updated);
+            }
+            return updated;
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int markAllAsRead(int userId) {
+        String sql = "UPDATE notifications SET is_read = TRUE WHERE user_id = ? AND is_read = FALSE";
         try {
-            jdbcTemplate.update(sql, notification.getUserId(), notification.getMessage(), notification.getSenderId());
+            int updated = jdbcTemplate.update(sql, userId);
+            if (updated > 0) {
+                decrementUnreadCount(userId, updated);
+            }
+            return updated;
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
     }
 
+    /**
+     * Deletes read notifications older than the given number of days, batchSize rows per statement so no single
+     * delete holds its locks for long. Unread notifications are kept whatever their age.
+     */
     @Override
-    public void markAsRead(int notificationId) {
-        String sql = "UPDATE notifications SET is_read = TRUE WHERE id = ?";
+    public int deleteReadNotificationsOlderThan(int days, int batchSize) {
+        // Rows are addressed by ctid, so the batch is deleted with a TID scan rather than a primary key probe per
+        // row, or the hash join over the whole table the planner switches to for large batches
+        String sql = "DELETE FROM notifications WHERE ctid = ANY(ARRAY(" +
+                     "SELECT ctid FROM notifications " +
+                     "WHERE is_read = TRUE AND created_at < NOW() - make_interval(days => ?) " +
+                     "LIMIT ?))";
+        int total = 0;
         try {
-            jdbcTemplate.update(sql, notificationId);
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(sql, days, batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
+        return total;
     }
 
     @Override
     public int getUnreadCount(int userId) {
-        String sql = "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = FALSE";
+        String sql = "SELECT unread_count FROM user_notification_state WHERE user_id = ?";
+        try {
+            List<Integer> result = jdbcTemplate.queryForList(sql, Integer.class, userId);
+            return result.isEmpty() ? 0 : result.get(0);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Works through the users a batch at a time, locking their existing counter rows before counting, so a
+     * notification created or read while the job runs is never overwritten by a count that missed it. A user
+     * without a row gets one inserted; should a first notification insert it concurrently, that row wins.
+     */
+    @Override
+    public int reconcileUnreadCounts() {
+        String idSql = "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+        String lockSql = "SELECT user_id FROM user_notification_state WHERE user_id = ANY(?) FOR UPDATE";
+        String updateSql = """
+                        UPDATE user_notification_state s
+                        SET unread_count = c.unread
+                        FROM (
+                            SELECT u.id, COUNT(n.id) AS unread
+                            FROM users u
+                            LEFT JOIN notifications n ON n.user_id = u.id AND n.is_read = FALSE
+                            WHERE u.id = ANY(?)
+                            GROUP BY u.id
+                        ) c
+                        WHERE s.user_id = c.id AND s.unread_count <> c.unread
+                        """;
+        String insertSql = """
+                        INSERT INTO user_notification_state (user_id, unread_count)
+                        SELECT u.id, COUNT(n.id)
+                        FROM users u
+                        LEFT JOIN notifications n ON n.user_id = u.id AND n.is_read = FALSE
+                        WHERE u.id = ANY(?)
+                        AND NOT EXISTS (SELECT 1 FROM user_notification_state s WHERE s.user_id = u.id)
+                        GROUP BY u.id
+                        ON CONFLICT (user_id) DO NOTHING
+                        """;
         try {
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, userId);
-            return count != null ? count : 0;
+            return JdbcTemplates.inBatches(jdbcTemplate, idSql, JdbcTemplates.RECONCILE_BATCH_SIZE, ids -> {
+                jdbcTemplate.query(lockSql, rs -> {}, (Object) ids);
+                return jdbcTemplate.update(updateSql, (Object) ids) + jdbcTemplate.update(insertSql, (Object) ids);
+            });
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
     }
 
-    private Notification mapRowToNotification(SqlRowSet rs) {
+    private void decrementUnreadCount(int userId, int by) {
+        String sql = "UPDATE user_notification_state SET unread_count = GREATEST(unread_count - ?, 0) WHERE user_id = ?";
+        jdbcTemplate.update(sql, by, userId);
+    }
+
+    // Column order of NOTIFICATION_COLUMNS followed by the sender's display name and profile image
+    private Notification mapRowToNotification(ResultSet rs, int rowNum) throws SQLException {
         Notification n = new Notification();
-        n.setId(rs.getInt("id"));
-        n.setUserId(rs.getInt("user_id"));
-        n.setMessage(rs.getString("message"));
-        n.setRead(rs.getBoolean("is_read"));
-        if (rs.getTimestamp("created_at") != null) {
-            n.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        n.setId(rs.getInt(1));
+        n.setUserId(rs.getInt(2));
+        n.setMessage(rs.getString(3));
+        n.setRead(rs.getBoolean(4));
+        Timestamp createdAt = rs.getTimestamp(5);
+        if (createdAt != null) {
+            n.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        n.setSenderId(rs.getInt(6));
+        n.setType(rs.getString(7));
+        int prayerRequestId = rs.getInt(8);
+        n.setPrayerRequestId(rs.wasNull() ? null : prayerRequestId);
+        n.setActorCount(rs.getInt(9));
+        for (Object actorId : toArray(rs.getArray(10))) {
+            n.getActorIds().add(((Number) actorId).intValue());
         }
-        n.setSenderId(rs.getInt("sender_id"));
-        if (rs.getString("sender_name") != null) {
-           n.setSenderName(rs.getString("sender_name"));
+        for (Object actorName : toArray(rs.getArray(11))) {
+            n.getActorNames().add(actorName.toString());
         }
-        if (rs.getString("sender_image") != null) {
-           n.setSenderProfileImage(rs.getString("sender_image"));
+        String senderName = rs.getString(12);
+        if (senderName != null) {
+           n.setSenderName(senderName);
+        }
+        String senderImage = rs.getString(13);
+        if (senderImage != null) {
+           n.setSenderProfileImage(senderImage);
         }
         return n;
     }
+
+    private Object[] toArray(Array array) throws SQLException {
+        return array == null ? new Object[0] : (Object[]) array.getArray();
+    }
 }
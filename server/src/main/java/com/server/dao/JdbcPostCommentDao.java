@@ -5,11 +5,12 @@ import com.server.model.PostComment;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
 @Repository
@@ -18,22 +19,19 @@ public class JdbcPostCommentDao implements PostCommentDao {
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcPostCommentDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
     public List<PostComment> getCommentsByPostId(int postId) {
-        List<PostComment> comments = new ArrayList<>();
-        String sql = "SELECT c.*, u.display_name, u.profile_image " +
+        List<PostComment> comments;
+        String sql = "SELECT c.id, c.post_id, c.user_id, c.content, c.created_at, u.display_name, u.profile_image " +
                      "FROM post_comments c " +
                      "JOIN users u ON c.user_id = u.id " +
                      "WHERE c.post_id = ? " +
                      "ORDER BY c.created_at ASC";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, postId);
-            while (results.next()) {
-                comments.add(mapRowToComment(results));
-            }
+            comments = jdbcTemplate.query(sql, this::mapRowToComment, postId);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -43,14 +41,14 @@ public class JdbcPostCommentDao implements PostCommentDao {
     @Override
     public PostComment getCommentById(int commentId) {
         PostComment comment = null;
-        String sql = "SELECT c.*, u.display_name, u.profile_image " +
+        String sql = "SELECT c.id, c.post_id, c.user_id, c.content, c.created_at, u.display_name, u.profile_image " +
                      "FROM post_comments c " +
                      "JOIN users u ON c.user_id = u.id " +
                      "WHERE c.id = ?";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, commentId);
-            if (results.next()) {
-                comment = mapRowToComment(results);
+            List<PostComment> results = jdbcTemplate.query(sql, this::mapRowToComment, commentId);
+            if (!results.isEmpty()) {
+                comment = results.get(0);
             }
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
@@ -59,11 +57,13 @@ public class JdbcPostCommentDao implements PostCommentDao {
     }
 
     @Override
+    @Transactional
     public PostComment createComment(PostComment comment) {
         String sql = "INSERT INTO post_comments (post_id, user_id, content) VALUES (?, ?, ?) RETURNING id";
         try {
             Integer newId = jdbcTemplate.queryForObject(sql, Integer.class,
                     comment.getPostId(), comment.getUserId(), comment.getContent());
+            jdbcTemplate.update("UPDATE posts SET comment_count = comment_count + 1 WHERE id = ?", comment.getPostId());
             return getCommentById(newId);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
@@ -73,35 +73,44 @@ public class JdbcPostCommentDao implements PostCommentDao {
     }
 
     @Override
+    @Transactional
     public void deleteComment(int commentId, int userId) {
-        String sql = "DELETE FROM post_comments WHERE id = ? AND user_id = ?";
+        String sql = "DELETE FROM post_comments WHERE id = ? AND user_id = ? RETURNING post_id";
         try {
-            jdbcTemplate.update(sql, commentId, userId);
+            decrementCommentCounts(jdbcTemplate.queryForList(sql, Integer.class, commentId, userId));
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
     }
 
     @Override
+    @Transactional
     public void deleteComment(int commentId) {
-        String sql = "DELETE FROM post_comments WHERE id = ?";
+        String sql = "DELETE FROM post_comments WHERE id = ? RETURNING post_id";
         try {
-            jdbcTemplate.update(sql, commentId);
+            decrementCommentCounts(jdbcTemplate.queryForList(sql, Integer.class, commentId));
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
     }
 
-    private PostComment mapRowToComment(SqlRowSet rs) {
+    private void decrementCommentCounts(List<Integer> postIds) {
+        for (Integer postId : postIds) {
+            jdbcTemplate.update("UPDATE posts SET comment_count = GREATEST(comment_count - 1, 0) WHERE id = ?", postId);
+        }
+    }
+
+    // Column order of every comment query: c.id, c.post_id, c.user_id, c.content, c.created_at, u.display_name, u.profile_image
+    private PostComment mapRowToComment(ResultSet rs, int rowNum) throws SQLException {
         PostComment comment = new PostComment();
-        comment.setId(rs.getInt("id"));
-        comment.setPostId(rs.getInt("post_id"));
-        comment.setUserId(rs.getInt("user_id"));
-        comment.setContent(rs.getString("content"));
-        comment.setCreatedAt(rs.getTimestamp("created_at"));
+        comment.setId(rs.getInt(1));
+        comment.setPostId(rs.getInt(2));
+        comment.setUserId(rs.getInt(3));
+        comment.setContent(rs.getString(4));
+        comment.setCreatedAt(rs.getTimestamp(5));
         
-        comment.setUserDisplayName(rs.getString("display_name"));
-        comment.setUserProfileImage(rs.getString("profile_image"));
+        comment.setUserDisplayName(rs.getString(6));
+        comment.setUserProfileImage(rs.getString(7));
         return comment;
     }
 }
@@ -1,48 +1,65 @@
 package com.server.dao;
 
 import com.server.exception.DaoException;
+import com.server.model.PageCursor;
 import com.server.model.Post;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public class JdbcPostDao implements PostDao {
 
+    private static final String POST_SELECT = "SELECT p.id, p.user_id, p.content, p.image_url, p.video_url, p.link_url, " +
+            "p.link_title, p.link_preview_img, p.created_at, u.display_name, u.profile_image, p.amen_count, p.comment_count, " +
+            "op.id, op.user_id, op.content, op.created_at, ou.display_name, ou.profile_image " +
+            "FROM posts p " +
+            "JOIN users u ON p.user_id = u.id " +
+            "LEFT JOIN posts op ON p.original_post_id = op.id " +
+            "LEFT JOIN users ou ON op.user_id = ou.id ";
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcPostDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
     public List<Post> getAllPosts(int currentUserId, int limit, int offset) {
-        List<Post> posts = new ArrayList<>();
-        String sql = "SELECT p.*, u.display_name, u.profile_image, " +
-                     "(SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p.id AND pr.type='AMEN') as amen_count, " +
-                     "(SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p.id) as comment_count, " +
-                     "(SELECT COUNT(*) > 0 FROM post_reactions pr WHERE pr.post_id = p.id AND pr.user_id = ? AND pr.type='AMEN') as is_liked, " +
-                     "op.id as original_id, op.user_id as original_user_id, op.content as original_content, " +
-                     "op.created_at as original_created_at, ou.display_name as original_user_display_name, " +
-                     "ou.profile_image as original_user_profile_image " +
-                     "FROM posts p " +
-                     "JOIN users u ON p.user_id = u.id " +
-                     "LEFT JOIN posts op ON p.original_post_id = op.id " +
-                     "LEFT JOIN users ou ON op.user_id = ou.id " +
+        List<Post> posts;
+        String sql = POST_SELECT +
                      "ORDER BY p.created_at DESC " +
                      "LIMIT ? OFFSET ?";
         
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, currentUserId, limit, offset);
-            while (results.next()) {
-                posts.add(mapRowToPost(results));
-            }
+            posts = jdbcTemplate.query(sql, this::mapRowToPost, limit, offset);
+            markLikedPosts(posts, currentUserId);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+        return posts;
+    }
+
+    @Override
+    public List<Post> getAllPosts(int currentUserId, PageCursor before, int limit) {
+        List<Post> posts;
+        String sql = POST_SELECT +
+                     "WHERE (p.created_at, p.id) < (?, ?) " +
+                     "ORDER BY p.created_at DESC, p.id DESC " +
+                     "LIMIT ?";
+
+        try {
+            posts = jdbcTemplate.query(sql, this::mapRowToPost,
+                    JdbcTemplates.cursorCreatedAt(before), JdbcTemplates.cursorId(before), limit);
+            markLikedPosts(posts, currentUserId);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -52,22 +69,13 @@ public class JdbcPostDao implements PostDao {
     @Override
     public Post getPostById(int postId, int currentUserId) {
         Post post = null;
-        String sql = "SELECT p.*, u.display_name, u.profile_image, " +
-                     "(SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p.id AND pr.type='AMEN') as amen_count, " +
-                     "(SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p.id) as comment_count, " +
-                     "(SELECT COUNT(*) > 0 FROM post_reactions pr WHERE pr.post_id = p.id AND pr.user_id = ? AND pr.type='AMEN') as is_liked, " +
-                     "op.id as original_id, op.user_id as original_user_id, op.content as original_content, " +
-                     "op.created_at as original_created_at, ou.display_name as original_user_display_name, " +
-                     "ou.profile_image as original_user_profile_image " +
-                     "FROM posts p " +
-                     "JOIN users u ON p.user_id = u.id " +
-                     "LEFT JOIN posts op ON p.original_post_id = op.id " +
-                     "LEFT JOIN users ou ON op.user_id = ou.id " +
+        String sql = POST_SELECT +
                      "WHERE p.id = ?";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, currentUserId, postId);
-            if (results.next()) {
-                post = mapRowToPost(results);
+            List<Post> results = jdbcTemplate.query(sql, this::mapRowToPost, postId);
+            if (!results.isEmpty()) {
+                post = results.get(0);
+                markLikedPosts(results, currentUserId);
             }
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
@@ -130,34 +138,72 @@ public class JdbcPostDao implements PostDao {
         }
     }
 
-    private Post mapRowToPost(SqlRowSet rs) {
+    /**
+     * Locks the posts a batch at a time before counting, the same way as the prayer_count reconciliation, so a
+     * reaction or comment that lands while the job runs is never overwritten by a count that missed it.
+     */
+    @Override
+    public int reconcileEngagementCounts() {
+        String idSql = "SELECT id FROM posts WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+        String sql = "UPDATE posts p SET amen_count = c.amens, comment_count = c.comments " +
+                     "FROM (SELECT p2.id, " +
+                     "(SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p2.id AND pr.type = 'AMEN') as amens, " +
+                     "(SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p2.id) as comments " +
+                     "FROM posts p2 WHERE p2.id = ANY(?)) c " +
+                     "WHERE c.id = p.id AND (p.amen_count <> c.amens OR p.comment_count <> c.comments)";
+        try {
+            return JdbcTemplates.inBatches(jdbcTemplate, idSql, JdbcTemplates.RECONCILE_BATCH_SIZE,
+                    ids -> jdbcTemplate.update(sql, (Object) ids));
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * Sets isLikedByCurrentUser for a whole page with one indexed probe instead of a subquery per row.
+     */
+    private void markLikedPosts(List<Post> posts, int currentUserId) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Integer[] postIds = posts.stream().map(Post::getId).toArray(Integer[]::new);
+        String sql = "SELECT post_id FROM post_reactions " +
+                     "WHERE user_id = ? AND type = 'AMEN' AND post_id = ANY(?)";
+        Set<Integer> liked = new HashSet<>(jdbcTemplate.queryForList(sql, Integer.class, currentUserId, postIds));
+        for (Post post : posts) {
+            post.setLikedByCurrentUser(liked.contains(post.getId()));
+        }
+    }
+
+    // Column order of POST_SELECT
+    private Post mapRowToPost(ResultSet rs, int rowNum) throws SQLException {
         Post post = new Post();
-        post.setId(rs.getInt("id"));
-        post.setUserId(rs.getInt("user_id"));
-        post.setContent(rs.getString("content"));
-        post.setImageUrl(rs.getString("image_url"));
-        post.setVideoUrl(rs.getString("video_url"));
-        post.setLinkUrl(rs.getString("link_url"));
-        post.setLinkTitle(rs.getString("link_title"));
-        post.setLinkPreviewImg(rs.getString("link_preview_img"));
-        post.setCreatedAt(rs.getTimestamp("created_at"));
+        post.setId(rs.getInt(1));
+        post.setUserId(rs.getInt(2));
+        post.setContent(rs.getString(3));
+        post.setImageUrl(rs.getString(4));
+        post.setVideoUrl(rs.getString(5));
+        post.setLinkUrl(rs.getString(6));
+        post.setLinkTitle(rs.getString(7));
+        post.setLinkPreviewImg(rs.getString(8));
+        post.setCreatedAt(rs.getTimestamp(9));
         
-        post.setUserDisplayName(rs.getString("display_name"));
-        post.setUserProfileImage(rs.getString("profile_image"));
+        post.setUserDisplayName(rs.getString(10));
+        post.setUserProfileImage(rs.getString(11));
         
-        post.setAmenCount(rs.getInt("amen_count"));
-        post.setCommentCount(rs.getInt("comment_count"));
-        post.setLikedByCurrentUser(rs.getBoolean("is_liked"));
+        post.setAmenCount(rs.getInt(12));
+        post.setCommentCount(rs.getInt(13));
         
         // Map original post if this is a repost
-        if (rs.getObject("original_id") != null) {
+        int originalId = rs.getInt(14);
+        if (!rs.wasNull()) {
             Post originalPost = new Post();
-            originalPost.setId(rs.getInt("original_id"));
-            originalPost.setUserId(rs.getInt("original_user_id"));
-            originalPost.setContent(rs.getString("original_content"));
-            originalPost.setCreatedAt(rs.getTimestamp("original_created_at"));
-            originalPost.setUserDisplayName(rs.getString("original_user_display_name"));
-            originalPost.setUserProfileImage(rs.getString("original_user_profile_image"));
+            originalPost.setId(originalId);
+            originalPost.setUserId(rs.getInt(15));
+            originalPost.setContent(rs.getString(16));
+            originalPost.setCreatedAt(rs.getTimestamp(17));
+            originalPost.setUserDisplayName(rs.getString(18));
+            originalPost.setUserProfileImage(rs.getString(19));
             
             post.setOriginalPost(originalPost);
             post.setOriginalPostId(originalPost.getId());
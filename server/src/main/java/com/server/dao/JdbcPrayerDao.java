@@ -5,12 +5,15 @@ import com.server.model.Prayer;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class JdbcPrayerDao implements PrayerDao{
@@ -18,38 +21,56 @@ public class JdbcPrayerDao implements PrayerDao{
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcPrayerDao(DataSource dataSource){
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
 
     @Override
     public List<Prayer> getAllPrayers() {
-        List<Prayer> prayers = new ArrayList<>();
+        List<Prayer> prayers;
 
-        String sql = "SELECT * FROM prayers;";
+        String sql = "SELECT id, prayer_request_id, user_id, prayed_at FROM prayers;";
 
         try{
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql);
-            while(result.next()){
-                prayers.add(mapRowToPrayer(result));
-            }
+            prayers = jdbcTemplate.query(sql, this::mapRowToPrayer);
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
         }
         return prayers;
     }
 
+    /**
+     * Hands every prayer to the action in id order, reading FETCH_SIZE rows per statement so the table is never
+     * held in memory. Each chunk is its own short query, so no connection is held while the action writes rows
+     * to a slow client; callers must not run this inside a transaction, which would pin one anyway.
+     */
+    @Override
+    public void streamAllPrayers(Consumer<Prayer> action) {
+        String sql = "SELECT id, prayer_request_id, user_id, prayed_at FROM prayers WHERE id > ? ORDER BY id LIMIT ?;";
+
+        try{
+            int after = 0;
+            List<Prayer> chunk;
+            do {
+                chunk = jdbcTemplate.query(sql, this::mapRowToPrayer, after, JdbcTemplates.FETCH_SIZE);
+                chunk.forEach(action);
+                if (!chunk.isEmpty()) {
+                    after = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == JdbcTemplates.FETCH_SIZE);
+        }catch (CannotGetJdbcConnectionException e){
+            throw new DaoException("Cannot connect to database", e);
+        }
+    }
+
     @Override
     public List<Prayer> getAllPrayersByUserId(int userId){
-        List<Prayer> prayers = new ArrayList<>();
+        List<Prayer> prayers;
 
-        String sql = "SELECT * FROM prayers WHERE user_id = ?;";
+        String sql = "SELECT id, prayer_request_id, user_id, prayed_at FROM prayers WHERE user_id = ?;";
 
         try{
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, userId);
-            while (results.next()){
-                prayers.add(mapRowToPrayer(results));
-            }
+            prayers = jdbcTemplate.query(sql, this::mapRowToPrayer, userId);
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
         }
@@ -58,15 +79,12 @@ public class JdbcPrayerDao implements PrayerDao{
 
     @Override
     public List<Prayer> getAllPrayersByPrayerRequestId(int prayerRequestId) {
-        List<Prayer> prayers = new ArrayList<>();
+        List<Prayer> prayers;
 
-        String sql = "SELECT * FROM prayers WHERE prayer_request_id = ?;";
+        String sql = "SELECT id, prayer_request_id, user_id, prayed_at FROM prayers WHERE prayer_request_id = ?;";
 
         try{
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, prayerRequestId);
-            while (results.next()){
-                prayers.add(mapRowToPrayer(results));
-            }
+            prayers = jdbcTemplate.query(sql, this::mapRowToPrayer, prayerRequestId);
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
         }
@@ -77,12 +95,12 @@ public class JdbcPrayerDao implements PrayerDao{
     public Prayer getPrayerById(int id) {
         Prayer prayer = null;
 
-        String sql = "SELECT * FROM prayers WHERE id = ?;";
+        String sql = "SELECT id, prayer_request_id, user_id, prayed_at FROM prayers WHERE id = ?;";
 
         try{
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql, id);
-            if (result.next()){
-                prayer = mapRowToPrayer(result);
+            List<Prayer> result = jdbcTemplate.query(sql, this::mapRowToPrayer, id);
+            if (!result.isEmpty()){
+                prayer = result.get(0);
             }
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
@@ -91,15 +109,22 @@ public class JdbcPrayerDao implements PrayerDao{
     }
 
     @Override
+    @Transactional
     public Prayer createPrayer(Prayer newPrayer) {
         Prayer prayer = null;
         int newId;
 
         String sql = "INSERT INTO prayers (prayer_request_id, user_id, prayed_at) " +
                 "VALUES (?, ?, ?) RETURNING id;";
+        String countSql = "UPDATE prayer_requests SET prayer_count = prayer_count + 1, updated_at = NOW() WHERE id = ?;";
+        String activitySql = "INSERT INTO prayer_activity (user_id, day, prayer_count) " +
+                "SELECT user_id, prayed_at::date, 1 FROM prayers WHERE id = ? AND user_id IS NOT NULL " +
+                "ON CONFLICT (user_id, day) DO UPDATE SET prayer_count = prayer_activity.prayer_count + 1;";
 
         try{
             newId = jdbcTemplate.queryForObject(sql, int.class, newPrayer.getPrayerRequestId(), newPrayer.getUserId(), newPrayer.getPrayedAt());
+            jdbcTemplate.update(countSql, newPrayer.getPrayerRequestId());
+            jdbcTemplate.update(activitySql, newId);
             prayer = getPrayerById(newId);
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
@@ -108,11 +133,21 @@ public class JdbcPrayerDao implements PrayerDao{
     }
 
     @Override
+    @Transactional
     public int deletePrayer(int id) {
-        String sql = "DELETE FROM prayers WHERE id = ?;";
+        String sql = "DELETE FROM prayers WHERE id = ? RETURNING id, prayer_request_id, user_id, prayed_at;";
+        String countSql = "UPDATE prayer_requests SET prayer_count = GREATEST(prayer_count - 1, 0), updated_at = NOW() WHERE id = ?;";
+        String activitySql = "UPDATE prayer_activity SET prayer_count = GREATEST(prayer_count - 1, 0) WHERE user_id = ? AND day = ?::date;";
 
         try{
-            return jdbcTemplate.update(sql, id);
+            List<Prayer> deleted = jdbcTemplate.query(sql, this::mapRowToPrayer, id);
+            for (Prayer prayer : deleted) {
+                jdbcTemplate.update(countSql, prayer.getPrayerRequestId());
+                if (prayer.getUserId() != null && prayer.getPrayedAt() != null) {
+                    jdbcTemplate.update(activitySql, prayer.getUserId(), Timestamp.valueOf(prayer.getPrayedAt()));
+                }
+            }
+            return deleted.size();
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot connect to database", e);
         }catch (DataIntegrityViolationException e){
@@ -120,14 +155,65 @@ public class JdbcPrayerDao implements PrayerDao{
         }
     }
 
-    private Prayer mapRowToPrayer(SqlRowSet rowSet){
+    /**
+     * Works through the users a batch at a time, locking their buckets before counting, so a prayer recorded or
+     * deleted while the job runs is never overwritten by a count that missed it. A missing bucket is inserted
+     * unless a concurrent prayer inserts it first, and buckets left without prayers are dropped.
+     */
+    @Override
+    public int reconcilePrayerActivity() {
+        String idSql = "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+        String lockSql = "SELECT 1 FROM prayer_activity WHERE user_id = ANY(?) FOR UPDATE";
+        String updateSql = """
+                        UPDATE prayer_activity a
+                        SET prayer_count = d.prayers
+                        FROM (
+                            SELECT user_id, prayed_at::date AS day, COUNT(*) AS prayers
+                            FROM prayers
+                            WHERE user_id = ANY(?)
+                            GROUP BY user_id, prayed_at::date
+                        ) d
+                        WHERE a.user_id = d.user_id AND a.day = d.day AND a.prayer_count <> d.prayers
+                        """;
+        String insertSql = """
+                        INSERT INTO prayer_activity (user_id, day, prayer_count)
+                        SELECT user_id, prayed_at::date, COUNT(*)
+                        FROM prayers
+                        WHERE user_id = ANY(?)
+                        GROUP BY user_id, prayed_at::date
+                        ON CONFLICT (user_id, day) DO NOTHING
+                        """;
+        String deleteSql = """
+                        DELETE FROM prayer_activity a
+                        WHERE a.user_id = ANY(?)
+                        AND NOT EXISTS (
+                            SELECT 1 FROM prayers p
+                            WHERE p.user_id = a.user_id AND p.prayed_at >= a.day AND p.prayed_at < a.day + 1
+                        )
+                        """;
+
+        try{
+            return JdbcTemplates.inBatches(jdbcTemplate, idSql, JdbcTemplates.RECONCILE_BATCH_SIZE, ids -> {
+                jdbcTemplate.query(lockSql, rs -> {}, (Object) ids);
+                return jdbcTemplate.update(updateSql, (Object) ids)
+                        + jdbcTemplate.update(insertSql, (Object) ids)
+                        + jdbcTemplate.update(deleteSql, (Object) ids);
+            });
+        }catch (CannotGetJdbcConnectionException e){
+            throw new DaoException("Cannot connect to database", e);
+        }
+    }
+
+    // Column order of every prayer query: id, prayer_request_id, user_id, prayed_at
+    private Prayer mapRowToPrayer(ResultSet rs, int rowNum) throws SQLException {
         Prayer prayer = new Prayer();
-        prayer.setId(rowSet.getInt("id"));
-        prayer.setPrayerRequestId(rowSet.getInt("prayer_request_id"));
-        int userId = rowSet.getInt("user_id");
-        prayer.setUserId(rowSet.wasNull()? null : userId);
-        if (rowSet.getTimestamp("prayed_at") != null){
-            prayer.setPrayedAt(rowSet.getTimestamp("prayed_at").toLocalDateTime());
+        prayer.setId(rs.getInt(1));
+        prayer.setPrayerRequestId(rs.getInt(2));
+        int userId = rs.getInt(3);
+        prayer.setUserId(rs.wasNull()? null : userId);
+        Timestamp prayedAt = rs.getTimestamp(4);
+        if (prayedAt != null){
+            prayer.setPrayedAt(prayedAt.toLocalDateTime());
         }
         return prayer;
     }
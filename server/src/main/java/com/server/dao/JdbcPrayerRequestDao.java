@@ -1,35 +1,31 @@
 package com.server.dao;
 
 import com.server.exception.DaoException;
+import com.server.model.PageCursor;
 import com.server.model.PrayerRequest;
 import com.server.model.PrayerRequestDto;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
 @Repository
 public class JdbcPrayerRequestDao implements PrayerRequestDao{
 
-    private final JdbcTemplate jdbcTemplate;
-
-    public JdbcPrayerRequestDao (DataSource dataSource){
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
-    }
-
-
-    @Override
-    public List<PrayerRequestDto> getAllPrayerRequest(String category, Boolean isAnswered) {
-        List<PrayerRequestDto> requests = new ArrayList<>();
-        List<Object> params = new ArrayList<>();
-        List<String> whereClauses = new ArrayList<>();
-
-        String sql = """
+    /*
+     * The list queries come in one fixed statement per combination of filters, indexed by filter(), rather than
+     * being assembled per call. Every call with the same filters sends the same text, so the driver can keep
+     * each variant prepared on the server.
+     */
+    private static final String LIST_SQL_TEMPLATE = """
                         SELECT
                             pr.id,
                             pr.requester_id,
@@ -40,37 +36,100 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
                             pr.is_answered,
                             pr.answer_content,
                             pr.created_at,
-                            COUNT(p.id) AS prayer_count,
+                            pr.prayer_count,
                             u.profile_image
                         FROM prayer_requests pr
-                        LEFT JOIN prayers p ON p.prayer_request_id = pr.id
                         LEFT JOIN users u ON u.id = pr.requester_id
+                        %s
+                        ORDER BY pr.created_at DESC
                         """;
 
-        if (category != null && !category.isEmpty()) {
-            whereClauses.add("pr.category = ?");
+    // The page is cut from prayer_requests first so the (created_at, id) index bounds the scan
+    private static final String PAGE_SQL_TEMPLATE = """
+                        SELECT
+                            pr.id,
+                            pr.requester_id,
+                            pr.name,
+                            pr.content,
+                            pr.category,
+                            pr.is_visible,
+                            pr.is_answered,
+                            pr.answer_content,
+                            pr.created_at,
+                            pr.prayer_count,
+                            u.profile_image
+                        FROM (
+                            SELECT id, requester_id, name, content, category, is_visible, is_answered, answer_content, created_at, prayer_count
+                            FROM prayer_requests
+                            WHERE %s(created_at, id) < (?, ?)
+                            ORDER BY created_at DESC, id DESC
+                            LIMIT ?
+                        ) pr
+                        LEFT JOIN users u ON u.id = pr.requester_id
+                        ORDER BY pr.created_at DESC, pr.id DESC
+                        """;
+
+    private static final String[] LIST_SQL = {
+            LIST_SQL_TEMPLATE.formatted(""),
+            LIST_SQL_TEMPLATE.formatted("WHERE pr.category = ?"),
+            LIST_SQL_TEMPLATE.formatted("WHERE pr.is_answered = ?"),
+            LIST_SQL_TEMPLATE.formatted("WHERE pr.category = ? AND pr.is_answered = ?")
+    };
+
+    private static final String[] PAGE_SQL = {
+            PAGE_SQL_TEMPLATE.formatted(""),
+            PAGE_SQL_TEMPLATE.formatted("category = ? AND "),
+            PAGE_SQL_TEMPLATE.formatted("is_answered = ? AND "),
+            PAGE_SQL_TEMPLATE.formatted("category = ? AND is_answered = ? AND ")
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcPrayerRequestDao (DataSource dataSource){
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
+    }
+
+
+    @Override
+    public List<PrayerRequestDto> getAllPrayerRequest(String category, Boolean isAnswered) {
+        List<PrayerRequestDto> requests;
+        List<Object> params = new ArrayList<>();
+        boolean byCategory = category != null && !category.isEmpty();
+
+        if (byCategory) {
             params.add(category);
         }
-
         if (isAnswered != null) {
-            whereClauses.add("pr.is_answered = ?");
             params.add(isAnswered);
         }
 
-        if (!whereClauses.isEmpty()) {
-            sql += " WHERE " + String.join(" AND ", whereClauses);
+        try{
+            requests = jdbcTemplate.query(LIST_SQL[filter(byCategory, isAnswered != null)], this::mapRowToPrayerRequestDto, params.toArray());
+        }catch (CannotGetJdbcConnectionException e){
+            throw new DaoException("Cannot Connect To Database", e);
         }
 
-        sql += """
-                 GROUP BY pr.id, pr.requester_id, pr.name, pr.content, pr.category, pr.is_visible, pr.is_answered, pr.answer_content, pr.created_at, u.profile_image
-                 ORDER BY pr.created_at DESC
-               """;
+        return requests;
+    }
+
+    @Override
+    public List<PrayerRequestDto> getPrayerRequestPage(String category, Boolean isAnswered, PageCursor after, int limit) {
+        List<PrayerRequestDto> requests;
+        List<Object> params = new ArrayList<>();
+        boolean byCategory = category != null && !category.isEmpty();
+
+        if (byCategory) {
+            params.add(category);
+        }
+        if (isAnswered != null) {
+            params.add(isAnswered);
+        }
+        params.add(JdbcTemplates.cursorCreatedAt(after));
+        params.add(JdbcTemplates.cursorId(after));
+        params.add(limit);
 
         try{
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql, params.toArray());
-            while(result.next()){
-                requests.add(mapRowToPrayerRequestDto(result));
-            }
+            requests = jdbcTemplate.query(PAGE_SQL[filter(byCategory, isAnswered != null)], this::mapRowToPrayerRequestDto, params.toArray());
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot Connect To Database", e);
         }
@@ -80,7 +139,7 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
 
     @Override
     public List<PrayerRequestDto> getAllPrayerRequestByRequesterId(int requesterId) {
-        List<PrayerRequestDto> requests = new ArrayList<>();
+        List<PrayerRequestDto> requests;
 
         String sql = """
                         SELECT
@@ -93,19 +152,14 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
                             pr.is_answered,
                             pr.answer_content,
                             pr.created_at,
-                            COUNT(p.id) AS prayer_count
+                            pr.prayer_count
                         FROM prayer_requests pr
-                        LEFT JOIN prayers p ON p.prayer_request_id = pr.id
                         WHERE pr.requester_id = ?
-                        GROUP BY pr.id, pr.requester_id, pr.name, pr.content, pr.category, pr.is_visible, pr.is_answered, pr.answer_content, pr.created_at
                         ORDER BY pr.created_at DESC
                         """;
 
         try{
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql, requesterId);
-            while(result.next()){
-                requests.add(mapRowToPrayerRequestDto(result));
-            }
+            requests = jdbcTemplate.query(sql, (rs, rowNum) -> mapPrayerRequestDtoColumns(rs), requesterId);
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot Connect To Database", e);
         }
@@ -117,12 +171,13 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
     public PrayerRequest getPrayerRequestById(int id) {
         PrayerRequest prayerRequest = null;
 
-        String sql = "SELECT * FROM prayer_requests WHERE id = ?;";
+        String sql = "SELECT id, requester_id, name, content, category, is_visible, is_answered, answer_content, created_at " +
+                "FROM prayer_requests WHERE id = ?;";
 
         try{
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql, id);
-            if (result.next()){
-                prayerRequest = mapRowToPrayerRequest(result);
+            List<PrayerRequest> result = jdbcTemplate.query(sql, this::mapRowToPrayerRequest, id);
+            if (!result.isEmpty()){
+                prayerRequest = result.get(0);
             }
         }catch (CannotGetJdbcConnectionException e){
             throw new DaoException("Cannot Connect To Database", e);
@@ -154,7 +209,7 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
 
     @Override
     public PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest) {
-        String sql = "UPDATE prayer_requests SET name = ?, content = ?, category = ?, is_visible = ?, is_answered = ?, answer_content = ?, is_anonymous = ? WHERE id = ?;";
+        String sql = "UPDATE prayer_requests SET name = ?, content = ?, category = ?, is_visible = ?, is_answered = ?, answer_content = ?, is_anonymous = ?, updated_at = NOW() WHERE id = ?;";
         try {
             jdbcTemplate.update(sql, 
                 prayerRequest.getName(), 
@@ -172,11 +227,25 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
     }
 
     @Override
+    @Transactional
     public int deletePrayerRequest(int id) {
+        // Take the request's prayers back out of the leaderboard buckets before they are deleted
+        String sqlActivity = """
+                        UPDATE prayer_activity a
+                        SET prayer_count = GREATEST(a.prayer_count - d.removed, 0)
+                        FROM (
+                            SELECT user_id, prayed_at::date AS day, COUNT(*) AS removed
+                            FROM prayers
+                            WHERE prayer_request_id = ? AND user_id IS NOT NULL
+                            GROUP BY user_id, prayed_at::date
+                        ) d
+                        WHERE a.user_id = d.user_id AND a.day = d.day
+                        """;
         String sqlPrayer = "DELETE FROM prayers WHERE prayer_request_id = ?;";
         String sql = "DELETE FROM prayer_requests WHERE id = ?;";
 
         try{
+            jdbcTemplate.update(sqlActivity, id);
             jdbcTemplate.update(sqlPrayer, id);
             return jdbcTemplate.update(sql, id);
         }catch (CannotGetJdbcConnectionException e) {
@@ -186,34 +255,84 @@ public class JdbcPrayerRequestDao implements PrayerRequestDao{
         }
     }
 
-    private PrayerRequest mapRowToPrayerRequest(SqlRowSet rowSet){
+    /**
+     * Locks the requests a batch at a time before counting, so a prayer committed while the batch waits for
+     * its lock is counted, and one inserted after it has the lock adds its +1 on top of the corrected count.
+     */
+    @Override
+    public int reconcilePrayerCounts() {
+        String idSql = "SELECT id FROM prayer_requests WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+        String sql = """
+                        UPDATE prayer_requests pr
+                        SET prayer_count = c.actual, updated_at = NOW()
+                        FROM (
+                            SELECT r.id, COUNT(p.id) AS actual
+                            FROM prayer_requests r
+                            LEFT JOIN prayers p ON p.prayer_request_id = r.id
+                            WHERE r.id = ANY(?)
+                            GROUP BY r.id
+                        ) c
+                        WHERE c.id = pr.id AND pr.prayer_count <> c.actual
+                        """;
+
+        try{
+            return JdbcTemplates.inBatches(jdbcTemplate, idSql, JdbcTemplates.RECONCILE_BATCH_SIZE,
+                    ids -> jdbcTemplate.update(sql, (Object) ids));
+        }catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    /**
+     * A cheap stamp that changes whenever any prayer request is created, edited, prayed for or deleted, or any
+     * user edits their profile, since the list carries the requester's profile_image.
+     */
+    @Override
+    public String getPrayerRequestListVersion() {
+        String sql = "SELECT COUNT(*) || ':' || COALESCE(MAX(updated_at)::text, '') || ':' || " +
+                     "(SELECT COALESCE(MAX(updated_at)::text, '') FROM users) FROM prayer_requests";
+
+        try{
+            return jdbcTemplate.queryForObject(sql, String.class);
+        }catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    private static int filter(boolean byCategory, boolean byAnswered) {
+        return (byCategory ? 1 : 0) + (byAnswered ? 2 : 0);
+    }
+
+    // Column order of every prayer request query: id, requester_id, name, content, category, is_visible,
+    // is_answered, answer_content, created_at, then prayer_count and profile_image for the DTO queries
+    private PrayerRequest mapRowToPrayerRequest(ResultSet rs, int rowNum) throws SQLException {
         PrayerRequest prayerRequest = new PrayerRequest();
-        prayerRequest.setId(rowSet.getInt("id"));
-        int requestId = rowSet.getInt("requester_id");
-        prayerRequest.setRequesterId(rowSet.wasNull()? null: requestId);
-        prayerRequest.setName(rowSet.getString("name"));
-        prayerRequest.setContent(rowSet.getString("content"));
-        if (rowSet.getTimestamp("created_at") != null) {
-            prayerRequest.setCreatedAt(rowSet.getTimestamp("created_at").toLocalDateTime());
+        prayerRequest.setId(rs.getInt(1));
+        int requestId = rs.getInt(2);
+        prayerRequest.setRequesterId(rs.wasNull()? null: requestId);
+        prayerRequest.setName(rs.getString(3));
+        prayerRequest.setContent(rs.getString(4));
+        prayerRequest.setCategory(rs.getString(5));
+        prayerRequest.setVisible(rs.getBoolean(6));
+        prayerRequest.setAnswered(rs.getBoolean(7));
+        prayerRequest.setAnswerContent(rs.getString(8));
+        Timestamp createdAt = rs.getTimestamp(9);
+        if (createdAt != null) {
+            prayerRequest.setCreatedAt(createdAt.toLocalDateTime());
         }
-        prayerRequest.setVisible(rowSet.getBoolean("is_visible"));
-        prayerRequest.setCategory(rowSet.getString("category"));
-        prayerRequest.setAnswered(rowSet.getBoolean("is_answered"));
-        prayerRequest.setAnswerContent(rowSet.getString("answer_content"));
         return prayerRequest;
     }
 
-    private PrayerRequestDto mapRowToPrayerRequestDto (SqlRowSet rowSet){
+    private PrayerRequestDto mapRowToPrayerRequestDto(ResultSet rs, int rowNum) throws SQLException {
+        PrayerRequestDto prayerRequestDto = mapPrayerRequestDtoColumns(rs);
+        prayerRequestDto.setUserProfileImage(rs.getString(11));
+        return prayerRequestDto;
+    }
+
+    private PrayerRequestDto mapPrayerRequestDtoColumns(ResultSet rs) throws SQLException {
         PrayerRequestDto prayerRequestDto = new PrayerRequestDto();
-        prayerRequestDto.setPrayerCount(rowSet.getInt("prayer_count"));
-        prayerRequestDto.setPrayerRequest(mapRowToPrayerRequest(rowSet));
-        // Get profile image if available (from JOIN with users table)
-        try {
-            prayerRequestDto.setUserProfileImage(rowSet.getString("profile_image"));
-        } catch (Exception e) {
-            // column might not exist in some queries
-        }
+        prayerRequestDto.setPrayerRequest(mapRowToPrayerRequest(rs, 0));
+        prayerRequestDto.setPrayerCount(rs.getInt(10));
         return prayerRequestDto;
     }
 }
-
@@ -0,0 +1,77 @@
+package com.server.dao;
+
+import com.server.exception.DaoException;
+import com.server.model.PrayerStats;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+public class JdbcPrayerStatsDao implements PrayerStatsDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcPrayerStatsDao(DataSource dataSource) {
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
+    }
+
+    /**
+     * Returns the user's counters, creating an empty row first if needed, and locks the row until the
+     * surrounding transaction ends so concurrent prayers by the same user are applied one after the other.
+     */
+    @Override
+    public PrayerStats lockPrayerStats(int userId) {
+        String insertSql = "INSERT INTO user_prayer_stats (user_id) VALUES (?) ON CONFLICT DO NOTHING";
+        String sql = "SELECT user_id, total_prayers, current_streak, last_prayer_date FROM user_prayer_stats WHERE user_id = ? FOR UPDATE";
+        try {
+            jdbcTemplate.update(insertSql, userId);
+            List<PrayerStats> results = jdbcTemplate.query(sql, this::mapRowToPrayerStats, userId);
+            if (!results.isEmpty()) {
+                return results.get(0);
+            }
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+        return new PrayerStats(userId, 0, 0, null);
+    }
+
+    @Override
+    public void updatePrayerStats(PrayerStats stats) {
+        String sql = "UPDATE user_prayer_stats SET total_prayers = ?, current_streak = ?, last_prayer_date = ? WHERE user_id = ?";
+        try {
+            jdbcTemplate.update(sql, stats.getTotalPrayers(), stats.getCurrentStreak(),
+                    stats.getLastPrayerDate() == null ? null : Date.valueOf(stats.getLastPrayerDate()),
+                    stats.getUserId());
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    @Override
+    public void decrementTotalPrayers(int userId) {
+        String sql = "UPDATE user_prayer_stats SET total_prayers = GREATEST(total_prayers - 1, 0) WHERE user_id = ?";
+        try {
+            jdbcTemplate.update(sql, userId);
+        } catch (CannotGetJdbcConnectionException e) {
+            throw new DaoException("Unable to connect to server or database", e);
+        }
+    }
+
+    private PrayerStats mapRowToPrayerStats(ResultSet rs, int rowNum) throws SQLException {
+        PrayerStats stats = new PrayerStats();
+        stats.setUserId(rs.getInt(1));
+        stats.setTotalPrayers(rs.getInt(2));
+        stats.setCurrentStreak(rs.getInt(3));
+        Date lastPrayerDate = rs.getDate(4);
+        if (lastPrayerDate != null) {
+            stats.setLastPrayerDate(lastPrayerDate.toLocalDate());
+        }
+        return stats;
+    }
+}
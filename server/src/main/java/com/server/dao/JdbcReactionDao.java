@@ -5,23 +5,31 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
 
 @Repository
 public class JdbcReactionDao implements ReactionDao {
 
+    private static final String AMEN = "AMEN";
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcReactionDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
+    @Transactional
     public void addReaction(int postId, int userId, String type) {
         String sql = "INSERT INTO post_reactions (post_id, user_id, type) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
         try {
-            jdbcTemplate.update(sql, postId, userId, type);
+            int rows = jdbcTemplate.update(sql, postId, userId, type);
+            // Only count reactions that were actually inserted so repeated taps stay idempotent
+            if (rows > 0 && AMEN.equals(type)) {
+                jdbcTemplate.update("UPDATE posts SET amen_count = amen_count + 1 WHERE id = ?", postId);
+            }
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         } catch (DataIntegrityViolationException e) {
@@ -30,10 +38,14 @@ public class JdbcReactionDao implements ReactionDao {
     }
 
     @Override
+    @Transactional
     public void removeReaction(int postId, int userId, String type) {
         String sql = "DELETE FROM post_reactions WHERE post_id = ? AND user_id = ? AND type = ?";
         try {
-            jdbcTemplate.update(sql, postId, userId, type);
+            int rows = jdbcTemplate.update(sql, postId, userId, type);
+            if (rows > 0 && AMEN.equals(type)) {
+                jdbcTemplate.update("UPDATE posts SET amen_count = GREATEST(amen_count - 1, 0) WHERE id = ?", postId);
+            }
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
@@ -0,0 +1,74 @@
+package com.server.dao;
+
+import com.server.model.PageCursor;
+import org.postgresql.PGStatement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds the JdbcTemplate each Jdbc*Dao works with.
+ *
+ * The fetch size makes the Postgres driver read large results in chunks through a cursor instead of loading
+ * them whole, so rows can be mapped as they arrive. The driver only does this inside a transaction; with
+ * autocommit on the setting is ignored and the full result is read at once, as before.
+ */
+final class JdbcTemplates {
+
+    static final int FETCH_SIZE = 500;
+
+    // Rows the counter reconciliations lock at a time; small enough that a writer waits on one for milliseconds
+    static final int RECONCILE_BATCH_SIZE = 1000;
+
+    // Bound as 'infinity' by the driver, so it sorts after every created_at
+    private static final Timestamp END_OF_TIME = new Timestamp(PGStatement.DATE_POSITIVE_INFINITY);
+
+    private JdbcTemplates() {}
+
+    static JdbcTemplate create(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        return jdbcTemplate;
+    }
+
+    /**
+     * The keyset bound to page before. Without a cursor it is a bound past every row, so the first page runs
+     * the same statement text as the pages after it instead of a variant without the keyset condition.
+     */
+    static Timestamp cursorCreatedAt(PageCursor before) {
+        return before == null ? END_OF_TIME : Timestamp.valueOf(before.getCreatedAt());
+    }
+
+    static int cursorId(PageCursor before) {
+        return before == null ? Integer.MAX_VALUE : before.getId();
+    }
+
+    /**
+     * Walks a table's ids in ascending order, batchSize at a time, each batch in a transaction of its own.
+     * idSql takes the last id of the previous batch and the batch size, and typically locks the rows with
+     * FOR UPDATE, so that everything the batch then reads comes from a snapshot taken after any concurrent
+     * writer to those rows has committed. Returns the sum of what batch returned.
+     */
+    static int inBatches(JdbcTemplate jdbcTemplate, String idSql, int batchSize, ToIntFunction<Integer[]> batch) {
+        record Batch(int lastId, int size, int changed) {}
+
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        int total = 0;
+        Batch done = new Batch(0, batchSize, 0);
+        while (done.size() == batchSize) {
+            int after = done.lastId();
+            done = transactions.execute(status -> {
+                Integer[] ids = jdbcTemplate.queryForList(idSql, Integer.class, after, batchSize).toArray(new Integer[0]);
+                return ids.length == 0
+                        ? new Batch(after, 0, 0)
+                        : new Batch(ids[ids.length - 1], ids.length, batch.applyAsInt(ids));
+            });
+            total += done.changed();
+        }
+        return total;
+    }
+}
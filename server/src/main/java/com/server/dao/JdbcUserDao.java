@@ -6,31 +6,33 @@ import com.server.model.User;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
 @Repository
 public class JdbcUserDao implements UserDao {
 
+    private static final String USER_COLUMNS = "id, name, display_name, email, password_hash, role, profile_image";
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcUserDao(DataSource dataSource) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = JdbcTemplates.create(dataSource);
     }
 
     @Override
     public User getUserById(int userId) {
         User user = null;
-        String sql = "SELECT * FROM users WHERE id = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE id = ?";
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, userId);
-            if (results.next()) {
-                user = mapRowToUser(results);
+            List<User> results = jdbcTemplate.query(sql, this::mapRowToUser, userId);
+            if (!results.isEmpty()) {
+                user = results.get(0);
             }
         }
         catch (CannotGetJdbcConnectionException e) {
@@ -42,15 +44,11 @@ public class JdbcUserDao implements UserDao {
     @Override
     public List<User> getUsers() {
 
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY id";
+        List<User> users;
+        String sql = "SELECT " + USER_COLUMNS + " FROM users ORDER BY id";
 
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql);
-            while (results.next()) {
-                User user = mapRowToUser(results);
-                users.add(user);
-            }
+            users = jdbcTemplate.query(sql, this::mapRowToUser);
         }
         catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
@@ -65,12 +63,12 @@ public class JdbcUserDao implements UserDao {
             email = "";
         }
         User user = null;
-        String sql = "SELECT * FROM users WHERE email = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE email = ?";
 
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, email);
-            if (results.next()) {
-                user = mapRowToUser(results);
+            List<User> results = jdbcTemplate.query(sql, this::mapRowToUser, email);
+            if (!results.isEmpty()) {
+                user = results.get(0);
             }
         }
         catch (CannotGetJdbcConnectionException e) {
@@ -110,7 +108,7 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public void updateProfileImage(String email, String imageUrl) {
-        String sql = "UPDATE users SET profile_image = ? WHERE email = ?";
+        String sql = "UPDATE users SET profile_image = ?, updated_at = NOW() WHERE email = ?";
         try {
             jdbcTemplate.update(sql, imageUrl, email);
         } catch (CannotGetJdbcConnectionException e) {
@@ -120,7 +118,7 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public void updateUserProfile(int userId, String name, String displayName, String profileImage) {
-        String sql = "UPDATE users SET name = ?, display_name = ?, profile_image = ? WHERE id = ?";
+        String sql = "UPDATE users SET name = ?, display_name = ?, profile_image = ?, updated_at = NOW() WHERE id = ?";
         try {
             jdbcTemplate.update(sql, name, displayName, profileImage, userId);
         } catch (CannotGetJdbcConnectionException e) {
@@ -130,57 +128,64 @@ public class JdbcUserDao implements UserDao {
         }
     }
 
+    /**
+     * Ranks users by the prayers in their daily prayer_activity buckets; the prayers table is never scanned.
+     * weekly and monthly cover the last 7 and 30 calendar days including today, anything else is all time.
+     */
     @Override
     public List<com.server.model.LeaderboardDto> getTopPrayerWarriors(String timeFrame, int limit) {
-        List<com.server.model.LeaderboardDto> leaderboard = new ArrayList<>();
-        String sql = """
-            SELECT 
-                u.id, 
-                u.display_name, 
-                u.profile_image, 
-                COUNT(p.id) as prayer_count 
-            FROM users u 
-            JOIN prayers p ON u.id = p.user_id 
-            WHERE 1=1
-        """;
-
+        List<com.server.model.LeaderboardDto> leaderboard;
+        int days = 0;
         if ("weekly".equalsIgnoreCase(timeFrame)) {
-            sql += " AND p.prayed_at >= NOW() - INTERVAL '7 days'";
+            days = 7;
         } else if ("monthly".equalsIgnoreCase(timeFrame)) {
-            sql += " AND p.prayed_at >= NOW() - INTERVAL '30 days'";
+            days = 30;
         }
 
-        sql += """
-             GROUP BY u.id, u.display_name, u.profile_image
-             ORDER BY prayer_count DESC
-             LIMIT ?
+        String sql = """
+            SELECT
+                u.id,
+                u.display_name,
+                u.profile_image,
+                t.prayer_count
+            FROM (
+                SELECT user_id, SUM(prayer_count) AS prayer_count
+                FROM prayer_activity
+                WHERE (? = 0 OR day > CURRENT_DATE - ?)
+                GROUP BY user_id
+                HAVING SUM(prayer_count) > 0
+                ORDER BY prayer_count DESC, user_id
+                LIMIT ?
+            ) t
+            JOIN users u ON u.id = t.user_id
+            ORDER BY t.prayer_count DESC, u.id
         """;
 
         try {
-            SqlRowSet results = jdbcTemplate.queryForRowSet(sql, limit);
-            while (results.next()) {
+            leaderboard = jdbcTemplate.query(sql, (rs, rowNum) -> {
                 com.server.model.LeaderboardDto entry = new com.server.model.LeaderboardDto();
-                entry.setId(results.getInt("id"));
-                entry.setName(results.getString("display_name"));
-                entry.setPrayerCount(results.getInt("prayer_count"));
-                entry.setAvatar(results.getString("profile_image"));
-                leaderboard.add(entry);
-            }
+                entry.setId(rs.getInt(1));
+                entry.setName(rs.getString(2));
+                entry.setAvatar(rs.getString(3));
+                entry.setPrayerCount(rs.getInt(4));
+                return entry;
+            }, days, days, limit);
         } catch (CannotGetJdbcConnectionException e) {
             throw new DaoException("Unable to connect to server or database", e);
         }
         return leaderboard;
     }
 
-    private User mapRowToUser(SqlRowSet rs) {
+    // Column order of USER_COLUMNS
+    private User mapRowToUser(ResultSet rs, int rowNum) throws SQLException {
         User user = new User();
-        user.setId(rs.getInt("id"));
-        user.setName(rs.getString("name"));
-        user.setDisplayName(rs.getString("display_name"));
-        user.setEmail(rs.getString("email"));
-        user.setHashedPassword(rs.getString("password_hash"));
-        user.setRole(rs.getString("role"));
-        user.setProfileImage(rs.getString("profile_image"));
+        user.setId(rs.getInt(1));
+        user.setName(rs.getString(2));
+        user.setDisplayName(rs.getString(3));
+        user.setEmail(rs.getString(4));
+        user.setHashedPassword(rs.getString(5));
+        user.setRole(rs.getString(6));
+        user.setProfileImage(rs.getString(7));
         return user;
     }
 }
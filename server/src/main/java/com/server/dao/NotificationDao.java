@@ -1,11 +1,19 @@
 package com.server.dao;
 
 import com.server.model.Notification;
+import com.server.model.PageCursor;
+
 import java.util.List;
 
 public interface NotificationDao {
     List<Notification> getNotificationsByUserId(int userId);
+    List<Notification> getNotificationPage(int userId, PageCursor before, int limit);
     void createNotification(Notification notification);
-    void markAsRead(int notificationId);
+    Notification getCoalescableNotification(int userId, String type, int prayerRequestId, int windowMinutes);
+    void updateCoalescedNotification(Notification notification);
+    int markAsRead(int userId, List<Integer> notificationIds);
+    int markAllAsRead(int userId);
+    int deleteReadNotificationsOlderThan(int days, int batchSize);
     int getUnreadCount(int userId);
+    int reconcileUnreadCounts();
 }
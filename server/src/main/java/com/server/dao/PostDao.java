@@ -1,12 +1,15 @@
 package com.server.dao;
 
+import com.server.model.PageCursor;
 import com.server.model.Post;
 import java.util.List;
 
 public interface PostDao {
     List<Post> getAllPosts(int userId, int limit, int offset);
+    List<Post> getAllPosts(int userId, PageCursor before, int limit);
     Post getPostById(int postId, int userId);
     Post createPost(Post post);
     Post updatePost(Post post, int userId);
     void deletePost(int postId, int userId);
+    int reconcileEngagementCounts();
 }
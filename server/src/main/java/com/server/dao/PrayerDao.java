@@ -3,12 +3,15 @@ package com.server.dao;
 import com.server.model.Prayer;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface PrayerDao {
     List<Prayer> getAllPrayers();
+    void streamAllPrayers(Consumer<Prayer> action);
     List<Prayer> getAllPrayersByUserId(int userId);
     List<Prayer> getAllPrayersByPrayerRequestId(int prayerRequestId);
     Prayer getPrayerById(int id);
     Prayer createPrayer(Prayer newPrayer);
     int deletePrayer(int id);
+    int reconcilePrayerActivity();
 }
@@ -1,5 +1,6 @@
 package com.server.dao;
 
+import com.server.model.PageCursor;
 import com.server.model.PrayerActivity;
 import com.server.model.PrayerRequest;
 import com.server.model.PrayerRequestDto;
@@ -8,9 +9,12 @@ import java.util.List;
 
 public interface PrayerRequestDao {
     List<PrayerRequestDto> getAllPrayerRequest(String category, Boolean isAnswered);
+    List<PrayerRequestDto> getPrayerRequestPage(String category, Boolean isAnswered, PageCursor after, int limit);
     List<PrayerRequestDto> getAllPrayerRequestByRequesterId(int requesterId);
     PrayerRequest getPrayerRequestById(int id);
     PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest);
     PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest);
     int deletePrayerRequest(int id);
+    int reconcilePrayerCounts();
+    String getPrayerRequestListVersion();
 }
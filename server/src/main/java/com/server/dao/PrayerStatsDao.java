@@ -0,0 +1,9 @@
+package com.server.dao;
+
+import com.server.model.PrayerStats;
+
+public interface PrayerStatsDao {
+    PrayerStats lockPrayerStats(int userId);
+    void updatePrayerStats(PrayerStats stats);
+    void decrementTotalPrayers(int userId);
+}
@@ -0,0 +1,7 @@
+package com.server.event;
+
+/**
+ * Published by CommentController after a user comments on a prayer request.
+ */
+public record CommentCreatedEvent(int prayerRequestId, int userId, String userDisplayName) {
+}
@@ -0,0 +1,75 @@
+package com.server.event;
+
+import com.server.dao.PrayerRequestDao;
+import com.server.model.PrayerRequest;
+import com.server.service.BadgeEngine;
+import com.server.service.NotificationCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Applies the side effects of a batch of prayer and comment events: badge progress for the actor and a
+ * notification for the prayer request owner, or for a deleted prayer the actor's total going back down. Each prayer request is looked up once per batch however many
+ * events refer to it, and a failure on one event does not stop the rest of the batch.
+ */
+@Component
+public class EngagementEventHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EngagementEventHandler.class);
+
+    private final BadgeEngine badgeEngine;
+    private final PrayerRequestDao prayerRequestDao;
+    private final NotificationCoalescer notificationCoalescer;
+
+    public EngagementEventHandler(BadgeEngine badgeEngine, PrayerRequestDao prayerRequestDao, NotificationCoalescer notificationCoalescer) {
+        this.badgeEngine = badgeEngine;
+        this.prayerRequestDao = prayerRequestDao;
+        this.notificationCoalescer = notificationCoalescer;
+    }
+
+    public void handle(List<Object> events) {
+        Map<Integer, Optional<PrayerRequest>> requests = new HashMap<>();
+        for (Object event : events) {
+            try {
+                if (event instanceof PrayerCreatedEvent prayer) {
+                    handlePrayer(prayer, requests);
+                } else if (event instanceof PrayerDeletedEvent prayer) {
+                    badgeEngine.recordPrayerDeleted(prayer.userId());
+                } else if (event instanceof CommentCreatedEvent comment) {
+                    handleComment(comment, requests);
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Failed to apply side effects for {}", event, e);
+            }
+        }
+    }
+
+    private void handlePrayer(PrayerCreatedEvent event, Map<Integer, Optional<PrayerRequest>> requests) {
+        badgeEngine.recordPrayer(event.userId(), event.prayedAt());
+
+        PrayerRequest prayerRequest = lookup(event.prayerRequestId(), requests);
+        if (prayerRequest != null && prayerRequest.getRequesterId() != null && !prayerRequest.getRequesterId().equals(event.userId())) {
+            notificationCoalescer.notify(prayerRequest.getRequesterId(), NotificationCoalescer.PRAYER, prayerRequest.getId(),
+                    prayerRequest.getName(), event.userId(), event.userDisplayName());
+        }
+    }
+
+    private void handleComment(CommentCreatedEvent event, Map<Integer, Optional<PrayerRequest>> requests) {
+        PrayerRequest prayerRequest = lookup(event.prayerRequestId(), requests);
+        if (prayerRequest != null && prayerRequest.getRequesterId() != null && !prayerRequest.getRequesterId().equals(event.userId())) {
+            notificationCoalescer.notify(prayerRequest.getRequesterId(), NotificationCoalescer.COMMENT, prayerRequest.getId(),
+                    prayerRequest.getName(), event.userId(), event.userDisplayName());
+        }
+    }
+
+    private PrayerRequest lookup(int prayerRequestId, Map<Integer, Optional<PrayerRequest>> requests) {
+        return requests.computeIfAbsent(prayerRequestId, id -> Optional.ofNullable(prayerRequestDao.getPrayerRequestById(id)))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,215 @@
+package com.server.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.model.Notification;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes new notifications to the users' open /api/notifications/stream connections.
+ *
+ * Each node keeps the emitters of the clients connected to it. With notifications.stream.listen enabled a
+ * published notification is sent through Postgres NOTIFY, which is only delivered once the inserting transaction
+ * commits, and every node (this one included) LISTENs on a dedicated connection and fans it out to its own
+ * emitters. With it disabled the notification is fanned out locally after commit, which is enough for a single
+ * node.
+ */
+@Component
+public class NotificationHub implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationHub.class);
+    private static final String CHANNEL = "user_notifications";
+
+    private final Map<Integer, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean listen;
+    private final long emitterTimeoutMs;
+    private final int maxStreamsPerUser;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running = true;
+    private Thread listenerThread;
+
+    public NotificationHub(DataSource dataSource,
+                           ObjectMapper objectMapper,
+                           @Value("${notifications.stream.listen:true}") boolean listen,
+                           @Value("${notifications.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                           @Value("${notifications.stream.max-per-user:5}") int maxStreamsPerUser,
+                           @Value("${spring.datasource.url}") String url,
+                           @Value("${spring.datasource.username}") String username,
+                           @Value("${spring.datasource.password}") String password) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.listen = listen;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (listen) {
+            listenerThread = new Thread(this::listenLoop, "notification-listener");
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+        }
+    }
+
+    /**
+     * Opens a stream for the user and sends the current unread count as its first event.
+     */
+    public SseEmitter subscribe(int userId, int unreadCount) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        List<SseEmitter> userEmitters = emitters.compute(userId, (id, existing) -> {
+            List<SseEmitter> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        // Bound the streams a single user can hold open, closing the oldest first
+        while (userEmitters.size() > maxStreamsPerUser) {
+            userEmitters.remove(0).complete();
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event().name("unread-count").data(unreadCount));
+        return emitter;
+    }
+
+    /**
+     * Publishes a newly created notification to its recipient. Nothing is sent if the surrounding transaction
+     * rolls back.
+     */
+    public void publish(Notification notification) {
+        if (listen) {
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, CHANNEL, objectMapper.writeValueAsString(notification));
+            } catch (JsonProcessingException e) {
+                LOG.error("Unable to serialize notification {}", notification.getId(), e);
+            }
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(notification);
+                }
+            });
+        } else {
+            deliver(notification);
+        }
+    }
+
+    void deliver(Notification notification) {
+        List<SseEmitter> userEmitters = emitters.get(notification.getUserId());
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            send(notification.getUserId(), emitter, SseEmitter.event().name("notification").data(notification));
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and notices clients that went away without closing.
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void send(int userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(int userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    /**
+     * LISTENs on a connection of its own rather than one borrowed from the pool, reconnecting after failures.
+     */
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications(1000);
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification pgNotification : received) {
+                        deliver(objectMapper.readValue(pgNotification.getParameter(), Notification.class));
+                    }
+                }
+            } catch (SQLException | IOException e) {
+                if (running) {
+                    LOG.warn("Notification listener lost its connection, reconnecting", e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+}
@@ -0,0 +1,9 @@
+package com.server.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by RestPrayerService after a signed-in user prays for a request.
+ */
+public record PrayerCreatedEvent(int prayerRequestId, int userId, String userDisplayName, LocalDateTime prayedAt) {
+}
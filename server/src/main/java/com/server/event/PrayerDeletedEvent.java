@@ -0,0 +1,7 @@
+package com.server.event;
+
+/**
+ * Published by RestPrayerService after a signed-in user's prayer is deleted.
+ */
+public record PrayerDeletedEvent(int userId) {
+}
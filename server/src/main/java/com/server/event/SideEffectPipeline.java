@@ -0,0 +1,150 @@
+package com.server.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves badge and notification work for prayer and comment events off the request thread.
+ *
+ * Events are taken only once the publishing transaction has committed (or immediately when there is none) and
+ * drained in batches by a fixed set of workers. Each worker has a bounded buffer of its own and events go to
+ * the one picked by the acting user's id, so one user's events are applied in the order they were published:
+ * a prayer deleted right after it was made is taken off the total after it was added. When that buffer is full
+ * the publishing thread waits for room, which slows producers down instead of dropping or reordering work.
+ *
+ * Once the pipeline is shutting down the publishing thread handles the event itself, in a transaction of its
+ * own as the publisher's has already committed, and failures are only logged since the request that published
+ * the event has already succeeded.
+ */
+@Component
+public class SideEffectPipeline implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SideEffectPipeline.class);
+
+    private final EngagementEventHandler handler;
+    private final TransactionTemplate newTransaction;
+    private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+    private final int batchSize;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private volatile boolean running = true;
+
+    public SideEffectPipeline(EngagementEventHandler handler,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${side-effects.queue-capacity:10000}") int queueCapacity,
+                              @Value("${side-effects.workers:2}") int workers,
+                              @Value("${side-effects.batch-size:100}") int batchSize) {
+        this.handler = handler;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workers)));
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        executor.setCorePoolSize(queues.size());
+        executor.setMaxPoolSize(queues.size());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("side-effects-");
+        executor.initialize();
+        for (BlockingQueue<Object> queue : queues) {
+            executor.execute(() -> drainLoop(queue));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrayerCreated(PrayerCreatedEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrayerDeleted(PrayerDeletedEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        enqueue(event);
+    }
+
+    private void enqueue(Object event) {
+        BlockingQueue<Object> queue = queues.get(Math.floorMod(actorId(event), queues.size()));
+        try {
+            while (running) {
+                if (queue.offer(event, 1, TimeUnit.SECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Still inside the publisher's afterCommit callback, where a REQUIRED transaction would join the
+        // committed one
+        try {
+            newTransaction.executeWithoutResult(status -> handler.handle(List.of(event)));
+        } catch (RuntimeException e) {
+            LOG.error("Side effects for {} failed on the publishing thread", event, e);
+        }
+    }
+
+    private static int actorId(Object event) {
+        if (event instanceof PrayerCreatedEvent prayer) {
+            return prayer.userId();
+        }
+        if (event instanceof PrayerDeletedEvent prayer) {
+            return prayer.userId();
+        }
+        if (event instanceof CommentCreatedEvent comment) {
+            return comment.userId();
+        }
+        return 0;
+    }
+
+    private void drainLoop(BlockingQueue<Object> queue) {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                handler.handle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOG.error("Side-effect batch of {} event(s) failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,8 @@
 package com.server.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Notification {
     private int id;
@@ -11,6 +13,12 @@ public class Notification {
     private int senderId;
     private String senderName;
     private String senderProfileImage;
+    private String type;
+    private Integer prayerRequestId;
+    private int actorCount = 1;
+    // Most recent actors first, capped at NotificationCoalescer.MAX_NAMED_ACTORS
+    private List<Integer> actorIds = new ArrayList<>();
+    private List<String> actorNames = new ArrayList<>();
 
     public Notification() {}
 
@@ -57,4 +65,19 @@ public class Notification {
     public void setSenderProfileImage(String senderProfileImage) {
         this.senderProfileImage = senderProfileImage;
     }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Integer getPrayerRequestId() { return prayerRequestId; }
+    public void setPrayerRequestId(Integer prayerRequestId) { this.prayerRequestId = prayerRequestId; }
+
+    public int getActorCount() { return actorCount; }
+    public void setActorCount(int actorCount) { this.actorCount = actorCount; }
+
+    public List<Integer> getActorIds() { return actorIds; }
+    public void setActorIds(List<Integer> actorIds) { this.actorIds = actorIds; }
+
+    public List<String> getActorNames() { return actorNames; }
+    public void setActorNames(List<String> actorNames) { this.actorNames = actorNames; }
 }
@@ -0,0 +1,37 @@
+package com.server.model;
+
+/**
+ * A queued email waiting in email_outbox to be delivered by EmailOutboxDispatcher.
+ */
+public class OutboxEmail {
+    private int id;
+    private String kind;
+    private String recipientEmail;
+    private String recipientName;
+    private int attempts;
+
+    public OutboxEmail() {}
+
+    public OutboxEmail(int id, String kind, String recipientEmail, String recipientName, int attempts) {
+        this.id = id;
+        this.kind = kind;
+        this.recipientEmail = recipientEmail;
+        this.recipientName = recipientName;
+        this.attempts = attempts;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public String getRecipientEmail() { return recipientEmail; }
+    public void setRecipientEmail(String recipientEmail) { this.recipientEmail = recipientEmail; }
+
+    public String getRecipientName() { return recipientName; }
+    public void setRecipientName(String recipientName) { this.recipientName = recipientName; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+}
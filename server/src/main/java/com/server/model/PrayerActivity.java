@@ -4,17 +4,27 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class PrayerActivity {
+    private int userId;
     private LocalDate day;
     private int prayerCount;
 
     public PrayerActivity() {
     }
 
-    public PrayerActivity(LocalDate day, int prayerCount) {
+    public PrayerActivity(int userId, LocalDate day, int prayerCount) {
+        this.userId = userId;
         this.day = day;
         this.prayerCount = prayerCount;
     }
 
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
     public LocalDate getDay() {
         return day;
     }
@@ -0,0 +1,35 @@
+package com.server.model;
+
+import java.time.LocalDate;
+
+/**
+ * Running prayer counters for one user, kept in user_prayer_stats so badge checks never need the
+ * user's full prayer history.
+ */
+public class PrayerStats {
+    private int userId;
+    private int totalPrayers;
+    private int currentStreak;
+    private LocalDate lastPrayerDate;
+
+    public PrayerStats() {}
+
+    public PrayerStats(int userId, int totalPrayers, int currentStreak, LocalDate lastPrayerDate) {
+        this.userId = userId;
+        this.totalPrayers = totalPrayers;
+        this.currentStreak = currentStreak;
+        this.lastPrayerDate = lastPrayerDate;
+    }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public int getTotalPrayers() { return totalPrayers; }
+    public void setTotalPrayers(int totalPrayers) { this.totalPrayers = totalPrayers; }
+
+    public int getCurrentStreak() { return currentStreak; }
+    public void setCurrentStreak(int currentStreak) { this.currentStreak = currentStreak; }
+
+    public LocalDate getLastPrayerDate() { return lastPrayerDate; }
+    public void setLastPrayerDate(LocalDate lastPrayerDate) { this.lastPrayerDate = lastPrayerDate; }
+}
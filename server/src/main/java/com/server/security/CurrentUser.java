@@ -0,0 +1,18 @@
+package com.server.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller parameter to be filled with the authenticated user, or null for anonymous requests.
+ * Resolved by {@link CurrentUserArgumentResolver}.
+ *
+ * On a {@link com.server.model.User} parameter the full user row is supplied. On an Integer parameter only the
+ * user id is supplied, which normally comes straight from the JWT without a database lookup.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
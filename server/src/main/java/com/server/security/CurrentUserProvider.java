@@ -0,0 +1,73 @@
+package com.server.security;
+
+import com.server.dao.UserDao;
+import com.server.model.User;
+import com.server.security.jwt.TokenPrincipal;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Looks up the authenticated user at most once per HTTP request.
+ *
+ * The first call after JwtFilter has set the Authentication loads the user row and stores it as a request
+ * attribute; later calls from controllers and services in the same request reuse it.
+ */
+@Component
+public class CurrentUserProvider {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserProvider.class.getName() + ".USER";
+
+    private final UserDao userDao;
+
+    public CurrentUserProvider(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    /**
+     * @return the authenticated user, or null if the request is anonymous or the user no longer exists
+     */
+    @SuppressWarnings("unchecked")
+    public User getCurrentUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loadUser();
+        }
+
+        Optional<User> cached = (Optional<User>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached == null) {
+            cached = Optional.ofNullable(loadUser());
+            attributes.setAttribute(REQUEST_ATTRIBUTE, cached, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cached.orElse(null);
+    }
+
+    /**
+     * Returns the authenticated user's id, read from the signed uid claim when the token carries one so no
+     * query is needed. Falls back to {@link #getCurrentUser()} for older tokens.
+     *
+     * @return the user id, or null if the request is anonymous
+     */
+    public Integer getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TokenPrincipal principal
+                && principal.getId() != null) {
+            return principal.getId();
+        }
+        User user = getCurrentUser();
+        return user == null ? null : user.getId();
+    }
+
+    private User loadUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return userDao.getUserByEmail(authentication.getName());
+    }
+}
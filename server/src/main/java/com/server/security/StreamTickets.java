@@ -0,0 +1,48 @@
+package com.server.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived, single-use tickets for opening the notification stream.
+ *
+ * EventSource cannot set an Authorization header, so the stream is authenticated by a query parameter, and
+ * query strings end up in access logs and browser history. A ticket is issued to an already authenticated
+ * caller, is good for ticket-seconds, and is gone once redeemed, so a logged URL is worthless.
+ */
+@Component
+public class StreamTickets {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Authentication> tickets;
+
+    public StreamTickets(@Value("${notifications.stream.ticket-seconds:30}") int ticketSeconds) {
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ticketSeconds))
+                .build();
+    }
+
+    public String issue(Authentication authentication) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, authentication);
+        return ticket;
+    }
+
+    /**
+     * @return the authentication the ticket was issued for, or null if it is unknown, expired or already used
+     */
+    public Authentication redeem(String ticket) {
+        return tickets.asMap().remove(ticket);
+    }
+}
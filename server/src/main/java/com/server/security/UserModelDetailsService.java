@@ -40,13 +40,29 @@ public class UserModelDetailsService implements UserDetailsService {
         return createSpringSecurityUser(login, user);
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String login, User user) {
+    private AuthenticatedUser createSpringSecurityUser(String login, User user) {
 
         List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
         grantedAuthorities.add(new SimpleGrantedAuthority(user.getRole()));
 
-        return new org.springframework.security.core.userdetails.User(user.getEmail(),
-                user.getHashedPassword(),
-                grantedAuthorities);
+        return new AuthenticatedUser(user, grantedAuthorities);
+    }
+
+    /**
+     * Spring Security principal that keeps the user row it was built from, so the login endpoint
+     * does not have to look the user up a second time.
+     */
+    public static class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+        private final User user;
+
+        public AuthenticatedUser(User user, List<GrantedAuthority> authorities) {
+            super(user.getEmail(), user.getHashedPassword(), authorities);
+            this.user = user;
+        }
+
+        public User getUser() {
+            return user;
+        }
     }
 }
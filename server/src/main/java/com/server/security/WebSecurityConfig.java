@@ -2,6 +2,7 @@ package com.server.security;
 
 import com.server.security.jwt.JwtFilter;
 import com.server.security.jwt.TokenProvider;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -142,6 +143,8 @@ public class WebSecurityConfig {
                 })
                 
                 .authorizeHttpRequests(requests -> requests
+                        // Streamed and SSE responses finish on an async dispatch of a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(new AntPathRequestMatcher("/api/login"), new AntPathRequestMatcher("/api/register/**")).permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/prayers", "/api/prayers/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/prayer-requests", "/api/prayer-requests/**").permitAll()
@@ -1,5 +1,6 @@
 package com.server.security.jwt;
 
+import com.server.security.StreamTickets;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -24,11 +25,17 @@ public class JwtFilter extends GenericFilterBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(JwtFilter.class);
     public static final String AUTHORIZATION_HEADER = "Authorization";
+    public static final String TICKET_PARAMETER = "ticket";
+    // EventSource cannot set headers, so the notification stream is opened with a single-use ticket from
+    // StreamTickets in the query string; the bearer token itself never goes into a URL
+    private static final String STREAM_PATH = "/api/notifications/stream";
 
     private TokenProvider tokenProvider;
+    private StreamTickets streamTickets;
 
-    public JwtFilter(TokenProvider tokenProvider) {
+    public JwtFilter(TokenProvider tokenProvider, StreamTickets streamTickets) {
         this.tokenProvider = tokenProvider;
+        this.streamTickets = streamTickets;
     }
 
     @Override
@@ -39,8 +46,8 @@ public class JwtFilter extends GenericFilterBean {
         String jwt = resolveToken(httpServletRequest);
         String requestURI = httpServletRequest.getRequestURI();
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            Authentication authentication = tokenProvider.getAuthentication(jwt);
+        Authentication authentication = StringUtils.hasText(jwt) ? tokenProvider.resolveAuthentication(jwt) : resolveTicket(httpServletRequest);
+        if (authentication != null) {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             LOG.debug("set Authentication to com.boxofprayers.security context for '{}', uri: {}", authentication.getName(), requestURI);
         } else {
@@ -58,4 +65,13 @@ public class JwtFilter extends GenericFilterBean {
         }
         return null;
     }
+
+    private Authentication resolveTicket(HttpServletRequest request) {
+        // This filter also runs a second time outside the security chain; the ticket is gone by then
+        if (!STREAM_PATH.equals(request.getServletPath()) || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return null;
+        }
+        String ticket = request.getParameter(TICKET_PARAMETER);
+        return StringUtils.hasText(ticket) ? streamTickets.redeem(ticket) : null;
+    }
 }
@@ -0,0 +1,32 @@
+package com.server.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal rebuilt from a validated JWT. Besides the email (username) and authorities it carries the
+ * signed user id and display name, so request handling that only needs those never touches the users table.
+ *
+ * Tokens issued before the uid claim existed produce a principal with a null id.
+ */
+public class TokenPrincipal extends User {
+
+    private final Integer id;
+    private final String displayName;
+
+    public TokenPrincipal(Integer id, String email, String displayName, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,89 @@
+package com.server.service;
+
+import com.server.dao.BadgeDao;
+import com.server.dao.PrayerStatsDao;
+import com.server.model.PrayerStats;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Awards prayer badges from per-user running counters.
+ *
+ * Each prayer advances the user's total, streak and last prayer date in constant time, and badges are only
+ * written when a milestone is crossed, with all of an event's badges going out in a single insert.
+ */
+@Service
+@Transactional
+public class BadgeEngine {
+
+    private static final int[] PRAYER_MILESTONES = {1, 10, 25, 50, 100, 250, 500, 1000, 5000};
+    private static final int[] STREAK_MILESTONES = {3, 7, 14, 30, 90, 365};
+
+    private final PrayerStatsDao prayerStatsDao;
+    private final BadgeDao badgeDao;
+
+    public BadgeEngine(PrayerStatsDao prayerStatsDao, BadgeDao badgeDao) {
+        this.prayerStatsDao = prayerStatsDao;
+        this.badgeDao = badgeDao;
+    }
+
+    public void recordPrayer(int userId, LocalDateTime prayedAt) {
+        PrayerStats stats = prayerStatsDao.lockPrayerStats(userId);
+        int previousTotal = stats.getTotalPrayers();
+        int previousStreak = stats.getCurrentStreak();
+
+        advance(stats, prayedAt.toLocalDate());
+        prayerStatsDao.updatePrayerStats(stats);
+
+        List<String> earned = new ArrayList<>();
+        for (int milestone : PRAYER_MILESTONES) {
+            if (previousTotal < milestone && stats.getTotalPrayers() >= milestone) {
+                earned.add(milestone == 1 ? "1_prayer" : milestone + "_prayers");
+            }
+        }
+        for (int milestone : STREAK_MILESTONES) {
+            if (previousStreak < milestone && stats.getCurrentStreak() >= milestone) {
+                earned.add(milestone + "_day_streak");
+            }
+        }
+
+        // Time & Weekend badges
+        int hour = prayedAt.getHour();
+        // Morning Light: 5am - 8am
+        if (hour >= 5 && hour < 9) earned.add("morning_prayer");
+        // Night Watch: 11pm - 3am
+        if (hour >= 23 || hour < 3) earned.add("night_prayer");
+        DayOfWeek day = prayedAt.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) earned.add("weekend_prayer");
+
+        if (!earned.isEmpty()) {
+            badgeDao.awardBadges(userId, earned);
+        }
+    }
+
+    public void recordPrayerDeleted(int userId) {
+        prayerStatsDao.decrementTotalPrayers(userId);
+    }
+
+    /**
+     * Applies one prayer on the given day to the counters. A prayer the day after the last one extends the streak,
+     * a later one starts a new streak, and a prayer on the same day (or backdated) leaves it unchanged.
+     */
+    static void advance(PrayerStats stats, LocalDate day) {
+        LocalDate last = stats.getLastPrayerDate();
+        if (last == null || day.isAfter(last.plusDays(1))) {
+            stats.setCurrentStreak(1);
+            stats.setLastPrayerDate(day);
+        } else if (day.equals(last.plusDays(1))) {
+            stats.setCurrentStreak(stats.getCurrentStreak() + 1);
+            stats.setLastPrayerDate(day);
+        }
+        stats.setTotalPrayers(stats.getTotalPrayers() + 1);
+    }
+}
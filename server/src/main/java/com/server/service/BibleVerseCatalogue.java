@@ -0,0 +1,116 @@
+package com.server.service;
+
+import com.server.dao.BibleVerseDao;
+import com.server.model.BibleVerse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Holds the read-only bible_verses table in memory.
+ *
+ * The verses are loaded once at startup into an array that is never modified, only replaced, so the daily verse
+ * is an index computed from the date (and cached until the date changes) and a random verse is a single array
+ * pick. The table is checked for changes every bible-verses.reload-check-ms and can be reloaded on demand.
+ */
+@Service
+public class BibleVerseCatalogue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BibleVerseCatalogue.class);
+
+    private record Snapshot(BibleVerse[] verses, String version) {}
+    private record Daily(LocalDate day, BibleVerse verse, String version) {}
+
+    private final BibleVerseDao bibleVerseDao;
+
+    private volatile Snapshot snapshot;
+    private volatile Daily daily;
+
+    public BibleVerseCatalogue(BibleVerseDao bibleVerseDao) {
+        this.bibleVerseDao = bibleVerseDao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            LOG.error("Unable to load bible verses at startup, they will be loaded on first use", e);
+        }
+    }
+
+    public BibleVerse getDailyVerse() {
+        return daily().verse();
+    }
+
+    /**
+     * ETag for today's daily verse. It changes at midnight and whenever the catalogue is reloaded.
+     */
+    public String getDailyVerseTag() {
+        Daily current = daily();
+        return "\"" + current.day() + "-" + (current.verse() == null ? 0 : current.verse().getId()) + "-"
+                + current.version().replace(':', '-') + "\"";
+    }
+
+    public BibleVerse getRandomVerse() {
+        BibleVerse[] verses = verses();
+        return verses.length == 0 ? null : verses[ThreadLocalRandom.current().nextInt(verses.length)];
+    }
+
+    /**
+     * Reloads the catalogue from the database and returns the number of verses loaded.
+     */
+    public synchronized int reload() {
+        String version = bibleVerseDao.getCatalogueVersion();
+        BibleVerse[] verses = bibleVerseDao.getAllVerses().toArray(new BibleVerse[0]);
+        snapshot = new Snapshot(verses, version);
+        daily = null;
+        LOG.info("Loaded {} bible verses", verses.length);
+        return verses.length;
+    }
+
+    @Scheduled(fixedDelayString = "${bible-verses.reload-check-ms:300000}")
+    public void reloadIfChanged() {
+        try {
+            Snapshot current = snapshot;
+            if (current == null || !current.version().equals(bibleVerseDao.getCatalogueVersion())) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Bible verse reload check failed, keeping the loaded verses", e);
+        }
+    }
+
+    private Daily daily() {
+        LocalDate today = LocalDate.now();
+        Daily current = daily;
+        if (current == null || !current.day().equals(today)) {
+            Snapshot loaded = snapshot();
+            BibleVerse[] verses = loaded.verses();
+            // Same pick as the previous SQL implementation, so today's verse does not change on upgrade
+            BibleVerse verse = verses.length == 0 ? null : verses[Math.abs(today.hashCode()) % verses.length];
+            current = new Daily(today, verse, loaded.version());
+            daily = current;
+        }
+        return current;
+    }
+
+    private BibleVerse[] verses() {
+        return snapshot().verses();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,56 @@
+package com.server.service;
+
+import com.server.dao.NotificationDao;
+import com.server.dao.PostDao;
+import com.server.dao.PrayerDao;
+import com.server.dao.PrayerRequestDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the denormalized counters (prayer_requests.prayer_count, posts.amen_count,
+ * posts.comment_count, user_notification_state.unread_count and the prayer_activity buckets) from their source
+ * tables.
+ *
+ * The counters are maintained by the DAOs on every insert and delete, so this only has work to do when rows
+ * were changed outside the application (manual fixes, cascading user deletes, imports).
+ */
+@Component
+public class CounterReconciliationJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CounterReconciliationJob.class);
+
+    private final PrayerRequestDao prayerRequestDao;
+    private final PostDao postDao;
+    private final NotificationDao notificationDao;
+    private final PrayerDao prayerDao;
+
+    public CounterReconciliationJob(PrayerRequestDao prayerRequestDao, PostDao postDao, NotificationDao notificationDao, PrayerDao prayerDao) {
+        this.prayerRequestDao = prayerRequestDao;
+        this.postDao = postDao;
+        this.notificationDao = notificationDao;
+        this.prayerDao = prayerDao;
+    }
+
+    @Scheduled(cron = "${counters.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        int fixedRequests = prayerRequestDao.reconcilePrayerCounts();
+        if (fixedRequests > 0) {
+            LOG.warn("Reconciled prayer_count drift on {} prayer request(s)", fixedRequests);
+        }
+        int fixedPosts = postDao.reconcileEngagementCounts();
+        if (fixedPosts > 0) {
+            LOG.warn("Reconciled amen/comment count drift on {} post(s)", fixedPosts);
+        }
+        int fixedUsers = notificationDao.reconcileUnreadCounts();
+        if (fixedUsers > 0) {
+            LOG.warn("Reconciled unread notification count drift for {} user(s)", fixedUsers);
+        }
+        int fixedBuckets = prayerDao.reconcilePrayerActivity();
+        if (fixedBuckets > 0) {
+            LOG.warn("Reconciled {} prayer_activity bucket(s)", fixedBuckets);
+        }
+    }
+}
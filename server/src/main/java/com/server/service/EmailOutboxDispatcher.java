@@ -0,0 +1,124 @@
+package com.server.service;
+
+import com.server.dao.EmailOutboxDao;
+import com.server.model.OutboxEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls email_outbox and hands due emails to SendGridEmailSender.
+ *
+ * Rows are claimed with a lease, so several instances can poll the same table without sending twice. A failed
+ * send is retried with exponential backoff until maxAttempts is reached, after which the row is marked FAILED
+ * and kept for inspection.
+ */
+@Component
+public class EmailOutboxDispatcher implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxDao emailOutboxDao;
+    private final SendGridEmailSender sender;
+    private final int concurrency;
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final int backoffBaseSeconds;
+    private final int backoffMaxSeconds;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final AtomicBoolean batchInFlight = new AtomicBoolean();
+
+    public EmailOutboxDispatcher(EmailOutboxDao emailOutboxDao,
+                                 SendGridEmailSender sender,
+                                 @Value("${email.outbox.concurrency:4}") int concurrency,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.lease-seconds:300}") int leaseSeconds,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-base-seconds:30}") int backoffBaseSeconds,
+                                 @Value("${email.outbox.backoff-max-seconds:3600}") int backoffMaxSeconds) {
+        this.emailOutboxDao = emailOutboxDao;
+        this.sender = sender;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseSeconds = backoffBaseSeconds;
+        this.backoffMaxSeconds = backoffMaxSeconds;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.initialize();
+    }
+
+    /**
+     * Claims one batch and hands it to the executor without waiting for it, so a slow SendGrid never holds the
+     * shared scheduler thread. Polls are skipped while a batch is still in flight, so at most batchSize emails
+     * are claimed at a time and at most concurrency of them are talking to SendGrid at once.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-ms:5000}")
+    public void dispatch() {
+        if (!batchInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        boolean handedOff = false;
+        try {
+            List<OutboxEmail> due = emailOutboxDao.claimDueEmails(batchSize, leaseSeconds);
+            if (due.isEmpty()) {
+                return;
+            }
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>(due.size());
+            for (OutboxEmail email : due) {
+                inFlight.add(CompletableFuture.runAsync(() -> deliver(email), executor));
+            }
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, e) -> batchInFlight.set(false));
+            handedOff = true;
+        } finally {
+            if (!handedOff) {
+                batchInFlight.set(false);
+            }
+        }
+    }
+
+    private void deliver(OutboxEmail email) {
+        try {
+            sender.send(email);
+            emailOutboxDao.markSent(email.getId());
+        } catch (Exception e) {
+            String error = e.getMessage();
+            if (email.getAttempts() >= maxAttempts) {
+                LOG.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipientEmail(), email.getAttempts(), e);
+                emailOutboxDao.markFailed(email.getId(), error);
+            } else {
+                int delay = backoffSeconds(email.getAttempts());
+                LOG.warn("Email {} failed on attempt {}, retrying in {}s: {}", email.getId(), email.getAttempts(), delay, error);
+                emailOutboxDao.scheduleRetry(email.getId(), error, delay);
+            }
+        }
+    }
+
+    int backoffSeconds(int attempts) {
+        long delay = (long) backoffBaseSeconds << Math.min(attempts - 1, 20);
+        return (int) Math.min(delay, backoffMaxSeconds);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
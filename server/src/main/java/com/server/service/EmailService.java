@@ -2,14 +2,17 @@ package com.server.service;
 
 /**
  * EmailService interface for sending emails to users.
+ *
+ * Emails are written to the email_outbox table in the caller's transaction and delivered later by
+ * EmailOutboxDispatcher, so callers never wait on the mail provider.
  */
 public interface EmailService {
     
     /**
-     * Sends a welcome email to a newly registered user.
+     * Queues a welcome email to a newly registered user.
      * 
      * @param recipientEmail The email address of the recipient
      * @param recipientName The name of the recipient
      */
-    void sendWelcomeEmail(String recipientEmail, String recipientName);
+    void queueWelcomeEmail(String recipientEmail, String recipientName);
 }
@@ -0,0 +1,81 @@
+package com.server.service;
+
+import com.server.dao.UserDao;
+import com.server.model.LeaderboardDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the public leaderboard from an in-memory snapshot.
+ *
+ * The weekly, monthly and all-time rankings are recomputed from the prayer_activity buckets every
+ * leaderboard.refresh-ms and swapped in as one immutable map, so requests only ever read memory. A failed refresh
+ * keeps serving the previous snapshot. Each ranking carries an ETag computed from its content, which only changes
+ * when the ranking does.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final UserDao userDao;
+    private final int size;
+
+    public record Board(List<LeaderboardDto> entries, String etag) {}
+
+    private volatile Map<String, Board> snapshot;
+
+    public LeaderboardService(UserDao userDao, @Value("${leaderboard.size:10}") int size) {
+        this.userDao = userDao;
+        this.size = size;
+    }
+
+    public List<LeaderboardDto> getLeaderboard(String timeFrame) {
+        return getBoard(timeFrame).entries();
+    }
+
+    public Board getBoard(String timeFrame) {
+        Map<String, Board> current = snapshot;
+        if (current == null) {
+            current = refreshSnapshot();
+        }
+        String key = timeFrame == null ? "all" : timeFrame.toLowerCase();
+        return current.getOrDefault(key, current.get("all"));
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            refreshSnapshot();
+        } catch (RuntimeException e) {
+            LOG.error("Leaderboard refresh failed, keeping the previous snapshot", e);
+        }
+    }
+
+    private synchronized Map<String, Board> refreshSnapshot() {
+        Map<String, Board> next = Map.of(
+                "weekly", board(userDao.getTopPrayerWarriors("weekly", size)),
+                "monthly", board(userDao.getTopPrayerWarriors("monthly", size)),
+                "all", board(userDao.getTopPrayerWarriors("all", size)));
+        snapshot = next;
+        return next;
+    }
+
+    private Board board(List<LeaderboardDto> entries) {
+        StringBuilder content = new StringBuilder();
+        for (LeaderboardDto entry : entries) {
+            content.append(entry.getId()).append('|').append(entry.getName()).append('|')
+                    .append(entry.getPrayerCount()).append('|').append(entry.getAvatar()).append('\n');
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new Board(List.copyOf(entries), etag);
+    }
+}
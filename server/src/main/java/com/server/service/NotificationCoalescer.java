@@ -0,0 +1,103 @@
+package com.server.service;
+
+import com.server.dao.NotificationDao;
+import com.server.model.Notification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates engagement notifications, merging repeats into one row.
+ *
+ * A prayer or comment on a request merges into the owner's newest unread notification of the same type about
+ * the same request when that notification was first created less than notifications.coalesce.window-minutes
+ * ago, so a popular request yields "Alice and 12 others prayed for your request" instead of a row per prayer.
+ * The window is fixed from the first actor; merges do not extend it. Only the latest actors are kept, so an
+ * actor who fell off that list and acts again is counted again.
+ */
+@Service
+@Transactional
+public class NotificationCoalescer {
+
+    public static final String PRAYER = "PRAYER";
+    public static final String COMMENT = "COMMENT";
+    static final int MAX_NAMED_ACTORS = 3;
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    private final NotificationDao notificationDao;
+    private final int windowMinutes;
+
+    public NotificationCoalescer(NotificationDao notificationDao,
+                                 @Value("${notifications.coalesce.window-minutes:60}") int windowMinutes) {
+        this.notificationDao = notificationDao;
+        this.windowMinutes = windowMinutes;
+    }
+
+    public void notify(int recipientId, String type, int prayerRequestId, String requestName, int actorId, String actorName) {
+        Notification notification = windowMinutes > 0
+                ? notificationDao.getCoalescableNotification(recipientId, type, prayerRequestId, windowMinutes)
+                : null;
+
+        if (notification == null) {
+            notification = new Notification();
+            notification.setUserId(recipientId);
+            notification.setType(type);
+            notification.setPrayerRequestId(prayerRequestId);
+            notification.setActorCount(1);
+            notification.getActorIds().add(actorId);
+            notification.getActorNames().add(actorName);
+            notification.setSenderId(actorId);
+            notification.setMessage(message(notification, requestName));
+            notificationDao.createNotification(notification);
+            return;
+        }
+
+        boolean repeatActor = notification.getActorIds().contains(actorId);
+        List<Integer> actorIds = new ArrayList<>(notification.getActorIds());
+        List<String> actorNames = new ArrayList<>(notification.getActorNames());
+        int previous = actorIds.indexOf(actorId);
+        if (previous >= 0) {
+            actorIds.remove(previous);
+            actorNames.remove(previous);
+        }
+        actorIds.add(0, actorId);
+        actorNames.add(0, actorName);
+        if (actorIds.size() > MAX_NAMED_ACTORS) {
+            actorIds = actorIds.subList(0, MAX_NAMED_ACTORS);
+            actorNames = actorNames.subList(0, MAX_NAMED_ACTORS);
+        }
+
+        notification.setActorIds(actorIds);
+        notification.setActorNames(actorNames);
+        if (!repeatActor) {
+            notification.setActorCount(notification.getActorCount() + 1);
+        }
+        notification.setSenderId(actorId);
+        notification.setMessage(message(notification, requestName));
+        notificationDao.updateCoalescedNotification(notification);
+    }
+
+    static String message(Notification notification, String requestName) {
+        List<String> names = notification.getActorNames();
+        int count = notification.getActorCount();
+        String actors;
+        if (count <= 1) {
+            actors = names.get(0);
+        } else if (count == 2 && names.size() >= 2) {
+            actors = names.get(0) + " and " + names.get(1);
+        } else {
+            actors = names.get(0) + " and " + (count - 1) + (count == 2 ? " other" : " others");
+        }
+
+        String message = COMMENT.equals(notification.getType())
+                ? actors + " commented on your prayer request: " + requestName
+                : actors + " prayed for your request: " + requestName;
+        if (message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,38 @@
+package com.server.service;
+
+import com.server.dao.NotificationDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes read notifications once they are older than notifications.retention.days, so the notifications table
+ * stops growing with every prayer and comment ever made. Unread notifications are never removed.
+ */
+@Component
+public class NotificationRetentionJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    private final NotificationDao notificationDao;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public NotificationRetentionJob(NotificationDao notificationDao,
+                                    @Value("${notifications.retention.days:90}") int retentionDays,
+                                    @Value("${notifications.retention.batch-size:5000}") int batchSize) {
+        this.notificationDao = notificationDao;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 0 4 * * *}")
+    public void purge() {
+        int deleted = notificationDao.deleteReadNotificationsOlderThan(retentionDays, batchSize);
+        if (deleted > 0) {
+            LOG.info("Deleted {} read notification(s) older than {} days", deleted, retentionDays);
+        }
+    }
+}
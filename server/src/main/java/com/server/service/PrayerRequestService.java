@@ -1,15 +1,18 @@
 package com.server.service;
 
+import com.server.model.CursorPage;
 import com.server.model.PrayerRequest;
 import com.server.model.PrayerRequestDto;
+import com.server.model.User;
 
-import java.security.Principal;
 import java.util.List;
 
 public interface PrayerRequestService {
-    List<PrayerRequestDto> getAllPrayerRequestDto(Principal principal, String category, Boolean isAnswered);
+    List<PrayerRequestDto> getAllPrayerRequestDto(String category, Boolean isAnswered);
+    String getPrayerRequestListVersion();
+    CursorPage<PrayerRequestDto> getPrayerRequestPage(String category, Boolean isAnswered, String cursor, int limit);
     PrayerRequest getPrayerRequestById(int id);
-    PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest, Principal principal);
-    PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest, Principal principal);
-    int deletePrayerRequest(int id, Principal principal);
+    PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest, User user);
+    PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest, User user);
+    int deletePrayerRequest(int id, User user);
 }
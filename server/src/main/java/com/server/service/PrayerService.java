@@ -1,16 +1,18 @@
 package com.server.service;
 
 import com.server.model.Prayer;
+import com.server.model.User;
 
-import java.security.Principal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface PrayerService {
-    List<Prayer> getAllPrayers(Principal principal);
+    List<Prayer> getAllPrayers(User user);
     List<Prayer> getAllPublicPrayers();
+    void streamAllPublicPrayers(Consumer<Prayer> action);
     List<Prayer> getAllPrayersByUserId(int userId);
     List<Prayer> getAllPrayersByPrayerRequestId(int prayerRequestId);
     Prayer getPrayerById(int id);
-    Prayer createPrayer(Prayer newPrayer, Principal principal);
-    int deletePrayer(int id, Principal principal);
+    Prayer createPrayer(Prayer newPrayer, User user);
+    int deletePrayer(int id, User user);
 }
@@ -0,0 +1,7 @@
+package com.server.service;
+
+import com.server.model.User;
+
+public interface RegistrationService {
+    User registerUser(User newUser);
+}
@@ -1,7 +1,8 @@
 package com.server.service;
 
 import com.server.dao.PrayerRequestDao;
-import com.server.dao.UserDao;
+import com.server.model.CursorPage;
+import com.server.model.PageCursor;
 import com.server.model.PrayerRequest;
 import com.server.model.PrayerRequestDto;
 import com.server.model.User;
@@ -10,46 +11,73 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import org.springframework.transaction.annotation.Transactional;
-import java.security.Principal;
 import java.util.List;
 
 @Service
 @Transactional
 public class RestPrayerRequestService implements PrayerRequestService{
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PrayerRequestDao prayerRequestDao;
-    private final UserDao userDao;
     private final com.server.dao.BadgeDao badgeDao;
 
-    public RestPrayerRequestService (PrayerRequestDao prayerRequestDao, UserDao userDao, com.server.dao.BadgeDao badgeDao){
+    public RestPrayerRequestService (PrayerRequestDao prayerRequestDao, com.server.dao.BadgeDao badgeDao){
         this.prayerRequestDao = prayerRequestDao;
-        this.userDao = userDao;
         this.badgeDao = badgeDao;
     }
 
-    private User getUser(Principal principal){
-        return userDao.getUserByEmail(principal.getName());
-    }
-
     private boolean isAdmin(User user){
         return user.getRole().equals("ROLE_ADMIN");
     }
 
     @Override
-    public List<PrayerRequestDto> getAllPrayerRequestDto(Principal principal, String category, Boolean isAnswered) {
+    public List<PrayerRequestDto> getAllPrayerRequestDto(String category, Boolean isAnswered) {
         return prayerRequestDao.getAllPrayerRequest(category, isAnswered);
     }
 
+    @Override
+    public String getPrayerRequestListVersion() {
+        return prayerRequestDao.getPrayerRequestListVersion();
+    }
+
+    @Override
+    public CursorPage<PrayerRequestDto> getPrayerRequestPage(String category, Boolean isAnswered, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        PageCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        // Ask for one extra row so we know whether another page exists without a COUNT(*)
+        List<PrayerRequestDto> rows = prayerRequestDao.getPrayerRequestPage(category, isAnswered, after, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            PrayerRequest last = rows.get(limit - 1).getPrayerRequest();
+            if (last.getCreatedAt() != null) {
+                nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
     @Override
     public PrayerRequest getPrayerRequestById(int id) {
         return prayerRequestDao.getPrayerRequestById(id);
     }
 
     @Override
-    public PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest, Principal principal) {
-        User user = null;
-        if (principal != null) {
-            user = getUser(principal);
+    public PrayerRequest createPrayerRequest(PrayerRequest newPrayerRequest, User user) {
+        if (user != null) {
             newPrayerRequest.setRequesterId(user.getId());
         } else {
             // CRITICAL: Ensure anonymous requests don't spoof an ID
@@ -72,13 +100,12 @@ public class RestPrayerRequestService implements PrayerRequestService{
     }
 
     @Override
-    public PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest, Principal principal) {
+    public PrayerRequest updatePrayerRequest(PrayerRequest prayerRequest, User user) {
         PrayerRequest existing = prayerRequestDao.getPrayerRequestById(prayerRequest.getId());
         if (existing == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Prayer Request not found");
         }
 
-        User user = getUser(principal);
         if (!isAdmin(user) && existing.getRequesterId() != user.getId()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to update this prayer request");
         }
@@ -95,11 +122,10 @@ public class RestPrayerRequestService implements PrayerRequestService{
     }
 
     @Override
-    public int deletePrayerRequest(int id, Principal principal) {
+    public int deletePrayerRequest(int id, User user) {
 
         PrayerRequest prayerRequest = getPrayerRequestById(id);
 
-        User user = getUser(principal);
         if (!isAdmin(user) && prayerRequest.getRequesterId() != user.getId()){
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to delete this prayer request");
         }
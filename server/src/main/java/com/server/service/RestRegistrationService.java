@@ -0,0 +1,30 @@
+package com.server.service;
+
+import com.server.dao.UserDao;
+import com.server.model.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Creates the user and queues the welcome email in one transaction, so an email is only ever sent for an
+ * account that exists and every account gets one.
+ */
+@Service
+@Transactional
+public class RestRegistrationService implements RegistrationService {
+
+    private final UserDao userDao;
+    private final EmailService emailService;
+
+    public RestRegistrationService(UserDao userDao, EmailService emailService) {
+        this.userDao = userDao;
+        this.emailService = emailService;
+    }
+
+    @Override
+    public User registerUser(User newUser) {
+        User user = userDao.createUser(newUser);
+        emailService.queueWelcomeEmail(user.getEmail(), user.getName());
+        return user;
+    }
+}
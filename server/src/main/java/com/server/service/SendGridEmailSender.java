@@ -0,0 +1,99 @@
+package com.server.service;
+
+import com.sendgrid.Client;
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import com.server.model.OutboxEmail;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Delivers outbox emails through the SendGrid API.
+ *
+ * One SendGrid client backed by a pooled HTTP client is shared by every dispatcher thread. The host and scheme
+ * are configurable so the sender can be pointed at a local stub server.
+ */
+@Component
+public class SendGridEmailSender implements DisposableBean {
+
+    public static final String WELCOME = "WELCOME";
+
+    private final CloseableHttpClient httpClient;
+    private final SendGrid sendGrid;
+    private final String welcomeTemplateId;
+    private final String fromEmail;
+    private final String fromName;
+
+    public SendGridEmailSender(@Value("${sendgrid.api.key}") String apiKey,
+                               @Value("${sendgrid.host:api.sendgrid.com}") String host,
+                               @Value("${sendgrid.plain-http:false}") boolean plainHttp,
+                               @Value("${sendgrid.timeout-ms:10000}") int timeoutMs,
+                               @Value("${email.outbox.concurrency:4}") int maxConnections,
+                               @Value("${sendgrid.template.welcome}") String welcomeTemplateId,
+                               @Value("${sendgrid.from.email}") String fromEmail,
+                               @Value("${sendgrid.from.name}") String fromName) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMs)
+                .setConnectionRequestTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+        this.sendGrid = new SendGrid(apiKey, new Client(httpClient, plainHttp));
+        this.sendGrid.setHost(host);
+        this.welcomeTemplateId = welcomeTemplateId;
+        this.fromEmail = fromEmail;
+        this.fromName = fromName;
+    }
+
+    /**
+     * Sends one email.
+     *
+     * @throws IOException if SendGrid could not be reached or did not accept the message
+     */
+    public void send(OutboxEmail email) throws IOException {
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(buildMail(email).build());
+
+        Response response = sendGrid.api(request);
+        if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
+            throw new IOException("SendGrid returned " + response.getStatusCode() + ": " + response.getBody());
+        }
+    }
+
+    private Mail buildMail(OutboxEmail email) {
+        if (!WELCOME.equals(email.getKind())) {
+            throw new IllegalArgumentException("Unknown email kind " + email.getKind());
+        }
+        Mail mail = new Mail();
+        mail.setFrom(new Email(fromEmail, fromName));
+        mail.setTemplateId(welcomeTemplateId);
+
+        Personalization personalization = new Personalization();
+        personalization.addTo(new Email(email.getRecipientEmail()));
+        personalization.addDynamicTemplateData("name", email.getRecipientName());
+        mail.addPersonalization(personalization);
+        return mail;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+}
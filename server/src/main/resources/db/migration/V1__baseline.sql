@@ -0,0 +1,214 @@
+-- Baseline schema: the state produced by database/create-table.sql plus every database/*.sql script up to and
+-- including add-prayer-requests-updated-at.sql. Databases set up from those scripts are baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and start at V2; empty databases are built from this file.
+
+CREATE TABLE users (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR (100) NOT NULL,
+    display_name VARCHAR (100) NOT NULL,
+    email VARCHAR(50) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL DEFAULT 'ROLE_USER',
+    profile_image VARCHAR(255)
+);
+
+CREATE TABLE prayer_requests (
+  id SERIAL PRIMARY KEY,
+  requester_id INT REFERENCES users(id) ON DELETE SET NULL,
+  name VARCHAR(100) NOT NULL,
+  content TEXT NOT NULL,
+  category VARCHAR(50) DEFAULT 'General',
+  created_at TIMESTAMP DEFAULT NOW(),
+  is_visible BOOLEAN DEFAULT FALSE,
+  is_answered BOOLEAN DEFAULT FALSE,
+  answer_content TEXT,
+  is_anonymous BOOLEAN DEFAULT FALSE,
+  prayer_count INT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_prayer_requests_created_at_id ON prayer_requests(created_at DESC, id DESC);
+CREATE INDEX idx_prayer_requests_updated_at ON prayer_requests (updated_at);
+
+CREATE TABLE prayers (
+  id SERIAL PRIMARY KEY,
+  prayer_request_id INT REFERENCES prayer_requests(id) ON DELETE CASCADE NOT NULL,
+  user_id INT REFERENCES users(id) ON DELETE CASCADE,
+  prayed_at TIMESTAMP DEFAULT NOW(),
+  UNIQUE (prayer_request_id, user_id)
+);
+
+CREATE TABLE prayer_activity (
+    user_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    prayer_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, day)
+);
+
+CREATE INDEX idx_prayer_activity_day ON prayer_activity (day);
+
+CREATE TABLE notifications (
+    id SERIAL PRIMARY KEY,
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    message TEXT NOT NULL,
+    is_read BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT NOW(),
+    sender_id INT,
+    type VARCHAR(20),
+    prayer_request_id INT,
+    actor_count INT NOT NULL DEFAULT 1,
+    actor_ids INT[] NOT NULL DEFAULT '{}',
+    actor_names TEXT[] NOT NULL DEFAULT '{}'
+);
+
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_sender FOREIGN KEY (sender_id) REFERENCES users(id);
+
+CREATE INDEX idx_notifications_user_unread
+ON notifications (user_id)
+WHERE is_read = FALSE;
+
+CREATE INDEX idx_notifications_user_created_at_id
+ON notifications (user_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_notifications_read_created_at
+ON notifications (created_at)
+WHERE is_read = TRUE;
+
+CREATE INDEX idx_notifications_coalesce
+ON notifications (user_id, prayer_request_id, type, created_at DESC)
+WHERE is_read = FALSE;
+
+CREATE TABLE user_notification_state (
+    user_id INT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_count INT NOT NULL DEFAULT 0 CHECK (unread_count >= 0)
+);
+
+CREATE TABLE comments (
+    id SERIAL PRIMARY KEY,
+    prayer_request_id INT REFERENCES prayer_requests(id) ON DELETE CASCADE,
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE badges (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    description TEXT,
+    icon_url VARCHAR(255),
+    criteria VARCHAR(50) UNIQUE NOT NULL
+);
+
+CREATE TABLE user_badges (
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    badge_id INT REFERENCES badges(id) ON DELETE CASCADE,
+    awarded_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (user_id, badge_id)
+);
+
+CREATE TABLE user_prayer_stats (
+    user_id INT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    total_prayers INT NOT NULL DEFAULT 0,
+    current_streak INT NOT NULL DEFAULT 0,
+    last_prayer_date DATE
+);
+
+CREATE TABLE posts (
+    id SERIAL PRIMARY KEY,
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    content TEXT,
+    image_url VARCHAR(500),
+    video_url VARCHAR(500),
+    link_url VARCHAR(500),
+    link_title VARCHAR(255),
+    link_preview_img VARCHAR(500),
+    created_at TIMESTAMP DEFAULT NOW(),
+    original_post_id INT REFERENCES posts(id) ON DELETE CASCADE,
+    amen_count INT NOT NULL DEFAULT 0,
+    comment_count INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_posts_original_post_id ON posts(original_post_id);
+CREATE INDEX idx_posts_created_at_id ON posts(created_at DESC, id DESC);
+
+CREATE TABLE post_comments (
+    id SERIAL PRIMARY KEY,
+    post_id INT REFERENCES posts(id) ON DELETE CASCADE,
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE post_reactions (
+    id SERIAL PRIMARY KEY,
+    post_id INT REFERENCES posts(id) ON DELETE CASCADE,
+    user_id INT REFERENCES users(id) ON DELETE CASCADE,
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    UNIQUE(post_id, user_id, type)
+);
+
+CREATE TABLE email_outbox (
+    id SERIAL PRIMARY KEY,
+    kind VARCHAR(50) NOT NULL,
+    recipient_email VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_due
+ON email_outbox (next_attempt_at)
+WHERE status = 'PENDING';
+
+CREATE TABLE bible_verses (
+    id SERIAL PRIMARY KEY,
+    book VARCHAR(50) NOT NULL,
+    chapter INT NOT NULL,
+    verse VARCHAR(20) NOT NULL,
+    text TEXT NOT NULL,
+    version VARCHAR(20) DEFAULT 'NIV'
+);
+
+-- Insert default badges
+INSERT INTO badges (name, description, criteria, icon_url) VALUES 
+('First Prayer', 'Awarded for praying for the first time.', '1_prayer', '/badges/prayer.png'),
+('Prayer Warrior', 'Awarded for praying 10 times.', '10_prayers', '/badges/prayer.png'),
+('Encourager', 'Awarded for creating 5 prayer requests.', '5_requests', '/badges/request.png'),
+('Faithful Servant', 'Awarded for 25 prayers.', '25_prayers', '/badges/prayer.png'),
+('Devoted Heart', 'Awarded for 50 prayers.', '50_prayers', '/badges/prayer.png'),
+('Spirit of Intercession', 'Awarded for 100 prayers.', '100_prayers', '/badges/prayer.png'),
+('Guardian of Faith', 'Awarded for 250 prayers.', '250_prayers', '/badges/prayer.png'),
+('Pillar of Light', 'Awarded for 500 prayers.', '500_prayers', '/badges/prayer.png'),
+('Eternal Watchman', 'Awarded for 1000 prayers.', '1000_prayers', '/badges/prayer.png'),
+('Early Riser', 'Awarded for a 3-day prayer streak.', '3_day_streak', '/badges/streak.png'),
+('Week of Grace', 'Awarded for a 7-day prayer streak.', '7_day_streak', '/badges/streak.png'),
+('Fortnight of Faith', 'Awarded for a 14-day prayer streak.', '14_day_streak', '/badges/streak.png'),
+('Month of Miracles', 'Awarded for a 30-day prayer streak.', '30_day_streak', '/badges/streak.png'),
+('Season of Prayer', 'Awarded for a 90-day prayer streak.', '90_day_streak', '/badges/streak.png'),
+('Year of Devotion', 'Awarded for a 365-day prayer streak.', '365_day_streak', '/badges/streak.png'),
+('Open Heart', 'Awarded for creating 10 prayer requests.', '10_requests', '/badges/request.png'),
+('Burden Sharer', 'Awarded for creating 25 prayer requests.', '25_requests', '/badges/request.png'),
+('Voice of Hope', 'Awarded for creating 50 prayer requests.', '50_requests', '/badges/request.png'),
+('Morning Light', 'Awarded for praying between 5am and 8am.', 'morning_prayer', '/badges/time.png'),
+('Night Watch', 'Awarded for praying between 11pm and 3am.', 'night_prayer', '/badges/time.png'),
+('Weekend Warrior', 'Awarded for praying on a weekend.', 'weekend_prayer', '/badges/time.png'),
+('First Step', 'Awarded for creating your first prayer request.', '1_request', '/badges/request.png'),
+('Community Builder', 'Awarded for creating 100 prayer requests.', '100_requests', '/badges/request.png'),
+('Prayer Champion', 'Awarded for 5000 prayers.', '5000_prayers', '/badges/prayer.png');
+
+INSERT INTO bible_verses (book, chapter, verse, text, version) VALUES
+('1 Corinthians', 16, '14', 'Let all that you do be done in love.', 'NIV'),
+('Jeremiah', 29, '11', 'For I know the plans I have for you, plans to prosper you and not to harm you, plans to give you hope and a future.', 'NIV'),
+('Joshua', 1, '9', 'Be strong and courageous. Do not be afraid; do not be discouraged, for the Lord your God will be with you wherever you go.', 'NIV'),
+('1 John', 4, '19', 'We love because He first loved us.', 'NIV'),
+('Psalm', 23, '1', 'The Lord is my shepherd, I lack nothing.', 'NIV'),
+('1 Peter', 5, '7', 'Cast all your anxiety on him because he cares for you.', 'NIV'),
+('Philippians', 4, '13', 'I can do all this through him who gives me strength.', 'NIV'),
+('Galatians', 5, '22', 'But the fruit of the Spirit is love, joy, peace, forbearance, kindness, goodness, faithfulness.', 'NIV'),
+('Proverbs', 3, '5', 'Trust in the Lord with all your heart and lean not on your own understanding.', 'NIV'),
+('Romans', 8, '28', 'And we know that in all things God works for the good of those who love him.', 'NIV');
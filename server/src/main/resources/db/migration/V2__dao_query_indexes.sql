@@ -0,0 +1,28 @@
+-- Secondary indexes for the DAO lookups that had none to use
+-- Built CONCURRENTLY so live tables stay writable; this migration runs outside a transaction (see the .conf file)
+--
+-- Already covered by V1 and deliberately not duplicated here:
+--   notifications by user, newest first  -> idx_notifications_user_created_at_id, idx_notifications_user_unread
+--   prayer_requests wall, newest first   -> idx_prayer_requests_created_at_id
+--   posts feed, newest first             -> idx_posts_created_at_id
+--   prayers by request                   -> UNIQUE (prayer_request_id, user_id)
+
+-- JdbcPrayerDao.getAllPrayersByUserId and the prayer_activity reconciliation (prayers per user and day)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayers_user_prayed_at
+ON prayers (user_id, prayed_at);
+
+-- Filtered pages of the prayer-request wall: category = ? [AND is_answered = ?] ORDER BY created_at DESC, id DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_category_answered_created_at
+ON prayer_requests (category, is_answered, created_at DESC, id DESC);
+
+-- JdbcPrayerRequestDao.getAllPrayerRequestByRequesterId (a user's own requests, newest first)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_requester_created_at
+ON prayer_requests (requester_id, created_at DESC);
+
+-- JdbcCommentDao.getCommentsByRequestId, also used by ON DELETE CASCADE from prayer_requests
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_request_created_at
+ON comments (prayer_request_id, created_at);
+
+-- JdbcPostCommentDao.getCommentsByPostId, also used by ON DELETE CASCADE from posts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_comments_post_created_at
+ON post_comments (post_id, created_at);
@@ -0,0 +1,16 @@
+-- prayed_at used to be taken from the client when it sent one. Pull any future-dated prayers back to now and
+-- move streaks anchored on a future day back to today, so real streaks can advance again.
+
+UPDATE prayers SET prayed_at = NOW() WHERE prayed_at > NOW();
+
+UPDATE user_prayer_stats SET last_prayer_date = CURRENT_DATE WHERE last_prayer_date > CURRENT_DATE;
+
+-- Their leaderboard buckets move with them
+INSERT INTO prayer_activity (user_id, day, prayer_count)
+SELECT user_id, CURRENT_DATE, SUM(prayer_count)
+FROM prayer_activity
+WHERE day > CURRENT_DATE
+GROUP BY user_id
+ON CONFLICT (user_id, day) DO UPDATE SET prayer_count = prayer_activity.prayer_count + EXCLUDED.prayer_count;
+
+DELETE FROM prayer_activity WHERE day > CURRENT_DATE;
@@ -0,0 +1,7 @@
+-- Change stamp for users. The public prayer request list shows each requester's profile_image, so the list's
+-- ETag version stamp takes MAX(users.updated_at) into account next to MAX(prayer_requests.updated_at).
+-- JdbcUserDao sets it on every profile write.
+
+ALTER TABLE users ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
@@ -0,0 +1,66 @@
+package com.server.dao;
+
+import com.server.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingUserDaoTests {
+
+	private final UserDao delegate = mock(UserDao.class);
+	private final CachingUserDao dao = new CachingUserDao(delegate, new DaoCaches(new MockEnvironment()));
+
+	@Test
+	void handsOutCopiesOfTheCachedUser() {
+		when(delegate.getUserByEmail("a@example.com")).thenReturn(user("old.png"));
+
+		User first = dao.getUserByEmail("a@example.com");
+		first.setProfileImage("tampered.png");
+		User second = dao.getUserByEmail("a@example.com");
+
+		assertNotSame(first, second);
+		assertEquals("old.png", second.getProfileImage());
+		verify(delegate, times(1)).getUserByEmail("a@example.com");
+	}
+
+	@Test
+	void aLookupRacingTheWriteDoesNotLeaveTheOldRowCached() {
+		when(delegate.getUserByEmail("a@example.com")).thenReturn(user("old.png"));
+		doAnswer(invocation -> {
+			// another request looks the user up while the UPDATE is still in flight
+			dao.getUserByEmail("a@example.com");
+			when(delegate.getUserByEmail("a@example.com")).thenReturn(user("new.png"));
+			return null;
+		}).when(delegate).updateProfileImage("a@example.com", "new.png");
+
+		dao.updateProfileImage("a@example.com", "new.png");
+
+		assertEquals("new.png", dao.getUserByEmail("a@example.com").getProfileImage());
+	}
+
+	@Test
+	void profileUpdateEvictsTheUserUnderBothKeys() {
+		when(delegate.getUserById(1)).thenReturn(user("old.png"));
+		when(delegate.getUserByEmail("a@example.com")).thenReturn(user("old.png"));
+		dao.getUserById(1);
+		dao.getUserByEmail("a@example.com");
+		when(delegate.getUserById(1)).thenReturn(user("new.png"));
+		when(delegate.getUserByEmail("a@example.com")).thenReturn(user("new.png"));
+
+		dao.updateUserProfile(1, "A", "A", "new.png");
+
+		assertEquals("new.png", dao.getUserById(1).getProfileImage());
+		assertEquals("new.png", dao.getUserByEmail("a@example.com").getProfileImage());
+	}
+
+	private static User user(String profileImage) {
+		return new User(1, "A", "A", "a@example.com", "$2a$10$hash", "ROLE_USER", profileImage);
+	}
+}
@@ -0,0 +1,333 @@
+package com.server.dao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.event.NotificationHub;
+import com.server.model.Comment;
+import com.server.model.Notification;
+import com.server.model.PageCursor;
+import com.server.model.PostComment;
+import com.server.model.Prayer;
+import com.server.model.PrayerRequest;
+import com.server.model.PrayerStats;
+import com.server.model.User;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the DAO queries against a migrated, seeded Postgres with every statement explained first, and fails if a
+ * plan reads one of the large tables with a sequential scan.
+ *
+ * Queries that read a whole table by design are not run: getAllPrayers, getAllComments, getUsers and the
+ * streaming variants, the unfiltered prayer request list, the reconcile* jobs, the list version stamp, the bible
+ * verse catalogue and the all-time leaderboard. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTests {
+
+	// Tables that grow with users and activity; badges, bible_verses and the like stay small
+	private static final Set<String> LARGE_TABLES = Set.of("users", "prayer_requests", "prayers", "prayer_activity",
+			"user_prayer_stats", "comments", "posts", "post_comments", "post_reactions", "notifications",
+			"user_notification_state", "user_badges", "email_outbox");
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Container
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static SingleConnectionDataSource database;
+
+	private final List<QueryPlan> plans = new ArrayList<>();
+	private DataSource dataSource;
+
+	@BeforeAll
+	static void migrateAndSeed() {
+		Flyway.configure()
+				.dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+				.configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+				.load()
+				.migrate();
+		database = new SingleConnectionDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+		new ResourceDatabasePopulator(new ClassPathResource("db/query-plan-seed.sql")).execute(database);
+	}
+
+	@AfterAll
+	static void closeDatabase() {
+		database.destroy();
+	}
+
+	@BeforeEach
+	void explainEveryStatement() {
+		plans.clear();
+		dataSource = new DelegatingDataSource(database) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return explaining(super.getConnection(), plans);
+			}
+		};
+	}
+
+	@Test
+	void prayerRequestQueriesUseIndexes() throws IOException {
+		PrayerRequestDao dao = new JdbcPrayerRequestDao(dataSource);
+		PageCursor cursor = new PageCursor(LocalDateTime.now().minusDays(30), Integer.MAX_VALUE);
+		for (String category : new String[] {null, "Healing"}) {
+			for (Boolean answered : new Boolean[] {null, Boolean.TRUE}) {
+				dao.getPrayerRequestPage(category, answered, null, 20);
+				dao.getPrayerRequestPage(category, answered, cursor, 20);
+			}
+		}
+		dao.getAllPrayerRequestByRequesterId(42);
+		dao.getPrayerRequestById(42);
+
+		PrayerRequest request = new PrayerRequest();
+		request.setRequesterId(42);
+		request.setName("Query plan");
+		request.setContent("Please pray");
+		request.setCategory("General");
+		request.setAnonymous(false);
+		request = dao.createPrayerRequest(request);
+		request.setAnswered(true);
+		dao.updatePrayerRequest(request);
+		dao.deletePrayerRequest(request.getId());
+
+		assertNoLargeSeqScans();
+	}
+
+	@Test
+	void prayerQueriesUseIndexes() throws IOException {
+		PrayerDao dao = new JdbcPrayerDao(dataSource);
+		dao.getAllPrayersByUserId(42);
+		dao.getAllPrayersByPrayerRequestId(42);
+		dao.getPrayerById(42);
+
+		Prayer prayer = new Prayer();
+		prayer.setPrayerRequestId(43);
+		prayer.setUserId(7);
+		prayer.setPrayedAt(LocalDateTime.now());
+		prayer = dao.createPrayer(prayer);
+		dao.deletePrayer(prayer.getId());
+
+		PrayerStatsDao statsDao = new JdbcPrayerStatsDao(dataSource);
+		PrayerStats stats = statsDao.lockPrayerStats(42);
+		statsDao.updatePrayerStats(stats);
+		statsDao.decrementTotalPrayers(42);
+
+		assertNoLargeSeqScans();
+	}
+
+	@Test
+	void userAndBadgeQueriesUseIndexes() throws IOException {
+		UserDao dao = new JdbcUserDao(dataSource);
+		dao.getUserById(42);
+		dao.getUserByEmail("user42@example.com");
+		dao.updateProfileImage("user42@example.com", "/avatars/42.png");
+		dao.updateUserProfile(42, "User 42", "user42", "/avatars/42.png");
+		dao.getTopPrayerWarriors("weekly", 10);
+		dao.getTopPrayerWarriors("monthly", 10);
+
+		User user = new User();
+		user.setName("Query Plan");
+		user.setDisplayName("queryplan");
+		user.setEmail("queryplan@example.com");
+		user.setHashedPassword("password");
+		user.setRole("ROLE_USER");
+		dao.createUser(user);
+
+		BadgeDao badgeDao = new JdbcBadgeDao(dataSource);
+		badgeDao.getBadgesByUserId(42);
+		badgeDao.awardBadge(42, "7_day_streak");
+		badgeDao.awardBadges(42, List.of("10_prayers", "25_prayers"));
+		badgeDao.hasBadge(42, "10_prayers");
+
+		assertNoLargeSeqScans();
+	}
+
+	@Test
+	void commentQueriesUseIndexes() throws IOException {
+		CommentDao dao = new JdbcCommentDao(dataSource);
+		dao.getCommentsByRequestId(42);
+		dao.getCommentById(42);
+		Comment comment = dao.createComment(new Comment(null, 42, 7, "Praying", null));
+		dao.updateComment(comment.getId(), "Still praying");
+		dao.deleteComment(comment.getId());
+
+		PostCommentDao postCommentDao = new JdbcPostCommentDao(dataSource);
+		postCommentDao.getCommentsByPostId(42);
+		postCommentDao.getCommentById(42);
+		PostComment reply = new PostComment();
+		reply.setPostId(42);
+		reply.setUserId(7);
+		reply.setContent("Amen");
+		reply = postCommentDao.createComment(reply);
+		postCommentDao.deleteComment(reply.getId(), 7);
+
+		assertNoLargeSeqScans();
+	}
+
+	@Test
+	void feedQueriesUseIndexes() throws IOException {
+		PostDao dao = new JdbcPostDao(dataSource);
+		dao.getAllPosts(42, 10, 0);
+		dao.getAllPosts(42, null, 10);
+		dao.getAllPosts(42, new PageCursor(LocalDateTime.now().minusDays(30), Integer.MAX_VALUE), 10);
+		dao.getPostById(42, 42);
+
+		ReactionDao reactionDao = new JdbcReactionDao(dataSource);
+		reactionDao.addReaction(42, 7, "AMEN");
+		reactionDao.removeReaction(42, 7, "AMEN");
+
+		assertNoLargeSeqScans();
+	}
+
+	@Test
+	void notificationQueriesUseIndexes() throws IOException {
+		NotificationHub hub = new NotificationHub(dataSource, MAPPER, false, 1000, 1,
+				POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+		NotificationDao dao = new JdbcNotificationDao(dataSource, hub);
+		dao.getNotificationsByUserId(42);
+		dao.getNotificationPage(42, null, 20);
+		dao.getNotificationPage(42, new PageCursor(LocalDateTime.now().minusDays(30), Integer.MAX_VALUE), 20);
+		dao.getUnreadCount(42);
+		dao.getCoalescableNotification(42, "PRAYER", 42, 60);
+
+		Notification notification = new Notification();
+		notification.setUserId(42);
+		notification.setSenderId(7);
+		notification.setMessage("Someone prayed for your request");
+		notification.setType("PRAYER");
+		notification.setPrayerRequestId(42);
+		notification.setActorCount(1);
+		notification.setActorIds(List.of(7));
+		notification.setActorNames(List.of("user7"));
+		dao.createNotification(notification);
+		dao.updateCoalescedNotification(notification);
+		dao.markAsRead(42, List.of(notification.getId()));
+		dao.markAllAsRead(42);
+		// The seeded rows span 139 days, so this ages out a few days' worth, about what the nightly job sees
+		dao.deleteReadNotificationsOlderThan(135, 5000);
+
+		EmailOutboxDao outboxDao = new JdbcEmailOutboxDao(dataSource);
+		outboxDao.enqueueEmail("WELCOME", "queryplan@example.com", "Query Plan");
+		outboxDao.claimDueEmails(10, 300).forEach(email -> outboxDao.markSent(email.getId()));
+
+		assertNoLargeSeqScans();
+	}
+
+	private void assertNoLargeSeqScans() throws IOException {
+		assertFalse(plans.isEmpty(), "No statements were explained");
+		List<String> failures = new ArrayList<>();
+		for (QueryPlan plan : plans) {
+			collectLargeSeqScans(MAPPER.readTree(plan.json()).get(0).get("Plan"), plan.sql(), failures);
+		}
+		assertTrue(failures.isEmpty(), () -> String.join("\n\n", failures));
+	}
+
+	private static void collectLargeSeqScans(JsonNode node, String sql, List<String> failures) {
+		String relation = node.path("Relation Name").asText();
+		if ("Seq Scan".equals(node.path("Node Type").asText()) && LARGE_TABLES.contains(relation)) {
+			failures.add("Seq Scan on " + relation + " in:\n" + sql.strip());
+		}
+		for (JsonNode child : node.path("Plans")) {
+			collectLargeSeqScans(child, sql, failures);
+		}
+	}
+
+	/**
+	 * Wraps a connection so that each statement is run under EXPLAIN (FORMAT JSON), with the same parameters,
+	 * just before it executes.
+	 */
+	private static Connection explaining(Connection connection, List<QueryPlan> plans) {
+		return proxy(Connection.class, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+				return explaining(statement, connection, (String) args[0], plans);
+			}
+			if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+				return proxy(Statement.class, (statementProxy, statementMethod, statementArgs) -> {
+					if (statementMethod.getName().startsWith("execute") && statementArgs != null && statementArgs[0] instanceof String sql) {
+						explain(connection, sql, List.of(), plans);
+					}
+					return invoke(statement, statementMethod, statementArgs);
+				});
+			}
+			return result;
+		});
+	}
+
+	private static PreparedStatement explaining(PreparedStatement statement, Connection connection, String sql, List<QueryPlan> plans) {
+		List<Invocation> parameters = new ArrayList<>();
+		return proxy(PreparedStatement.class, (proxy, method, args) -> {
+			String name = method.getName();
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				parameters.add(new Invocation(method, args));
+			} else if (name.equals("clearParameters")) {
+				parameters.clear();
+			} else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+				explain(connection, sql, parameters, plans);
+			}
+			return invoke(statement, method, args);
+		});
+	}
+
+	private static void explain(Connection connection, String sql, List<Invocation> parameters, List<QueryPlan> plans) throws Throwable {
+		try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+			for (Invocation parameter : parameters) {
+				invoke(explain, parameter.method(), parameter.args());
+			}
+			try (ResultSet rs = explain.executeQuery()) {
+				rs.next();
+				plans.add(new QueryPlan(sql, rs.getString(1)));
+			}
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(QueryPlanTests.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+	private record Invocation(Method method, Object[] args) {
+	}
+
+	private record QueryPlan(String sql, String json) {
+	}
+}
@@ -0,0 +1,59 @@
+package com.server.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SideEffectPipelineTests {
+
+	@Test
+	void appliesEachUsersEventsInTheOrderTheyWerePublished() throws Exception {
+		List<Object> handled = Collections.synchronizedList(new ArrayList<>());
+		EngagementEventHandler handler = mock(EngagementEventHandler.class);
+		doAnswer(invocation -> {
+			List<Object> batch = invocation.getArgument(0);
+			handled.addAll(batch);
+			Thread.sleep(batch.size() % 3);
+			return null;
+		}).when(handler).handle(anyList());
+
+		SideEffectPipeline pipeline = new SideEffectPipeline(handler, mock(PlatformTransactionManager.class), 16, 4, 5);
+		pipeline.afterPropertiesSet();
+		try {
+			for (int user = 1; user <= 300; user++) {
+				pipeline.onPrayerCreated(new PrayerCreatedEvent(1, user, "User " + user, LocalDateTime.now()));
+				pipeline.onPrayerDeleted(new PrayerDeletedEvent(user));
+			}
+			for (int i = 0; i < 100 && handled.size() < 600; i++) {
+				Thread.sleep(50);
+			}
+		} finally {
+			pipeline.destroy();
+		}
+
+		assertEquals(600, handled.size());
+		for (int user = 1; user <= 300; user++) {
+			int created = -1;
+			int deleted = -1;
+			for (int i = 0; i < handled.size(); i++) {
+				Object event = handled.get(i);
+				if (event instanceof PrayerCreatedEvent prayer && prayer.userId() == user) {
+					created = i;
+				} else if (event instanceof PrayerDeletedEvent prayer && prayer.userId() == user) {
+					deleted = i;
+				}
+			}
+			assertTrue(created >= 0 && created < deleted, "user " + user + " was decremented before the increment");
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.server.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTests {
+
+	@Test
+	void decodesWhatItEncodes() {
+		LocalDateTime createdAt = LocalDateTime.of(2024, 6, 3, 10, 15, 30, 123456000);
+
+		PageCursor cursor = PageCursor.decode(new PageCursor(createdAt, 42).encode());
+
+		assertEquals(createdAt, cursor.getCreatedAt());
+		assertEquals(42, cursor.getId());
+	}
+
+	@Test
+	void decodesATimestampOnAWholeMinute() {
+		// LocalDateTime.toString leaves the seconds out here
+		LocalDateTime createdAt = LocalDateTime.of(2024, 6, 3, 10, 15);
+
+		assertEquals(createdAt, PageCursor.decode(new PageCursor(createdAt, 1).encode()).getCreatedAt());
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(""));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("2024-06-03T10:15:30")));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("yesterday|42")));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("2024-06-03T10:15:30|")));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("2024-06-03T10:15:30|forty-two")));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("2024-06-03T10:15:30|99999999999")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,102 @@
+package com.server.service;
+
+import com.server.dao.BadgeDao;
+import com.server.dao.PrayerStatsDao;
+import com.server.model.PrayerStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BadgeEngineTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2024, 6, 3);
+
+	@Test
+	void firstPrayerStartsAStreakOfOne() {
+		PrayerStats stats = new PrayerStats(1, 0, 0, null);
+
+		BadgeEngine.advance(stats, MONDAY);
+
+		assertEquals(1, stats.getTotalPrayers());
+		assertEquals(1, stats.getCurrentStreak());
+		assertEquals(MONDAY, stats.getLastPrayerDate());
+	}
+
+	@Test
+	void prayerOnTheNextDayExtendsTheStreak() {
+		PrayerStats stats = new PrayerStats(1, 5, 2, MONDAY);
+
+		BadgeEngine.advance(stats, MONDAY.plusDays(1));
+
+		assertEquals(6, stats.getTotalPrayers());
+		assertEquals(3, stats.getCurrentStreak());
+		assertEquals(MONDAY.plusDays(1), stats.getLastPrayerDate());
+	}
+
+	@Test
+	void secondPrayerOnTheSameDayOnlyCountsTowardsTheTotal() {
+		PrayerStats stats = new PrayerStats(1, 5, 2, MONDAY);
+
+		BadgeEngine.advance(stats, MONDAY);
+
+		assertEquals(6, stats.getTotalPrayers());
+		assertEquals(2, stats.getCurrentStreak());
+		assertEquals(MONDAY, stats.getLastPrayerDate());
+	}
+
+	@Test
+	void prayerAfterAMissedDayStartsANewStreak() {
+		PrayerStats stats = new PrayerStats(1, 5, 4, MONDAY);
+
+		BadgeEngine.advance(stats, MONDAY.plusDays(2));
+
+		assertEquals(6, stats.getTotalPrayers());
+		assertEquals(1, stats.getCurrentStreak());
+		assertEquals(MONDAY.plusDays(2), stats.getLastPrayerDate());
+	}
+
+	@Test
+	void backdatedPrayerLeavesTheStreakAlone() {
+		PrayerStats stats = new PrayerStats(1, 5, 4, MONDAY);
+
+		BadgeEngine.advance(stats, MONDAY.minusDays(3));
+
+		assertEquals(6, stats.getTotalPrayers());
+		assertEquals(4, stats.getCurrentStreak());
+		assertEquals(MONDAY, stats.getLastPrayerDate());
+	}
+
+	@Test
+	void awardsEachMilestoneOnlyWhenItIsCrossed() {
+		PrayerStatsDao statsDao = mock(PrayerStatsDao.class);
+		BadgeDao badgeDao = mock(BadgeDao.class);
+		when(statsDao.lockPrayerStats(7)).thenReturn(new PrayerStats(7, 9, 2, MONDAY));
+
+		// Tuesday 6am: the tenth prayer, the third day in a row and a morning prayer
+		new BadgeEngine(statsDao, badgeDao).recordPrayer(7, MONDAY.plusDays(1).atTime(6, 0));
+
+		verify(badgeDao).awardBadges(7, List.of("10_prayers", "3_day_streak", "morning_prayer"));
+	}
+
+	@Test
+	void writesNoBadgesWhenNothingIsEarned() {
+		PrayerStatsDao statsDao = mock(PrayerStatsDao.class);
+		BadgeDao badgeDao = mock(BadgeDao.class);
+		when(statsDao.lockPrayerStats(7)).thenReturn(new PrayerStats(7, 11, 3, MONDAY));
+
+		new BadgeEngine(statsDao, badgeDao).recordPrayer(7, LocalDateTime.of(MONDAY, LocalTime.NOON));
+
+		verify(badgeDao, never()).awardBadges(anyInt(), anyList());
+	}
+}
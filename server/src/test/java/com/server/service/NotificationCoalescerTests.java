@@ -0,0 +1,104 @@
+package com.server.service;
+
+import com.server.dao.NotificationDao;
+import com.server.model.Notification;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationCoalescerTests {
+
+	@Test
+	void namesASingleActor() {
+		assertEquals("Alice prayed for your request: Job search",
+				NotificationCoalescer.message(notification(NotificationCoalescer.PRAYER, 1, "Alice"), "Job search"));
+	}
+
+	@Test
+	void namesBothOfTwoActors() {
+		assertEquals("Bob and Alice prayed for your request: Job search",
+				NotificationCoalescer.message(notification(NotificationCoalescer.PRAYER, 2, "Bob", "Alice"), "Job search"));
+	}
+
+	@Test
+	void countsTheOthersBeyondTheLatestActor() {
+		assertEquals("Carol and 12 others prayed for your request: Job search",
+				NotificationCoalescer.message(notification(NotificationCoalescer.PRAYER, 13, "Carol", "Bob", "Alice"), "Job search"));
+		assertEquals("Bob and 1 other prayed for your request: Job search",
+				NotificationCoalescer.message(notification(NotificationCoalescer.PRAYER, 2, "Bob"), "Job search"));
+	}
+
+	@Test
+	void wordsCommentsDifferently() {
+		assertEquals("Carol and 2 others commented on your prayer request: Job search",
+				NotificationCoalescer.message(notification(NotificationCoalescer.COMMENT, 3, "Carol", "Bob", "Alice"), "Job search"));
+	}
+
+	@Test
+	void truncatesLongMessages() {
+		String message = NotificationCoalescer.message(notification(NotificationCoalescer.PRAYER, 1, "Alice"), "x".repeat(300));
+
+		assertEquals(255, message.length());
+		assertTrue(message.endsWith("..."));
+	}
+
+	@Test
+	void createsANotificationWhenThereIsNothingToMergeInto() {
+		NotificationDao dao = mock(NotificationDao.class);
+
+		new NotificationCoalescer(dao, 60).notify(1, NotificationCoalescer.PRAYER, 5, "Job search", 2, "Alice");
+
+		ArgumentCaptor<Notification> created = ArgumentCaptor.forClass(Notification.class);
+		verify(dao).createNotification(created.capture());
+		assertEquals("Alice prayed for your request: Job search", created.getValue().getMessage());
+		assertEquals(List.of(2), created.getValue().getActorIds());
+	}
+
+	@Test
+	void mergesANewActorInFrontAndKeepsOnlyTheLatestNames() {
+		NotificationDao dao = mock(NotificationDao.class);
+		Notification existing = notification(NotificationCoalescer.PRAYER, 3, "Carol", "Bob", "Alice");
+		existing.setActorIds(new ArrayList<>(List.of(4, 3, 2)));
+		when(dao.getCoalescableNotification(1, NotificationCoalescer.PRAYER, 5, 60)).thenReturn(existing);
+
+		new NotificationCoalescer(dao, 60).notify(1, NotificationCoalescer.PRAYER, 5, "Job search", 9, "Dave");
+
+		verify(dao, never()).createNotification(any());
+		verify(dao).updateCoalescedNotification(existing);
+		assertEquals(4, existing.getActorCount());
+		assertEquals(List.of(9, 4, 3), existing.getActorIds());
+		assertEquals("Dave and 3 others prayed for your request: Job search", existing.getMessage());
+	}
+
+	@Test
+	void doesNotCountARepeatActorTwice() {
+		NotificationDao dao = mock(NotificationDao.class);
+		Notification existing = notification(NotificationCoalescer.PRAYER, 2, "Bob", "Alice");
+		existing.setActorIds(new ArrayList<>(List.of(3, 2)));
+		when(dao.getCoalescableNotification(1, NotificationCoalescer.PRAYER, 5, 60)).thenReturn(existing);
+
+		new NotificationCoalescer(dao, 60).notify(1, NotificationCoalescer.PRAYER, 5, "Job search", 2, "Alice");
+
+		assertEquals(2, existing.getActorCount());
+		assertEquals(List.of(2, 3), existing.getActorIds());
+		assertEquals("Alice and Bob prayed for your request: Job search", existing.getMessage());
+	}
+
+	private static Notification notification(String type, int actorCount, String... actorNames) {
+		Notification notification = new Notification();
+		notification.setType(type);
+		notification.setActorCount(actorCount);
+		notification.setActorNames(new ArrayList<>(List.of(actorNames)));
+		return notification;
+	}
+}
@@ -0,0 +1,63 @@
+package com.server.service;
+
+import com.server.model.OutboxEmail;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SendGridEmailSenderTests {
+
+	private HttpServer server;
+	private final AtomicInteger status = new AtomicInteger(202);
+	private final AtomicReference<String> path = new AtomicReference<>();
+	private final AtomicReference<String> body = new AtomicReference<>();
+	private SendGridEmailSender sender;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			path.set(exchange.getRequestURI().getPath());
+			body.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			exchange.sendResponseHeaders(status.get(), -1);
+			exchange.close();
+		});
+		server.start();
+		sender = new SendGridEmailSender("test-key", "localhost:" + server.getAddress().getPort(), true, 2000, 2,
+				"d-welcome", "noreply@example.com", "Box of Prayers");
+	}
+
+	@AfterEach
+	void stopStub() throws IOException {
+		sender.destroy();
+		server.stop(0);
+	}
+
+	@Test
+	void sendsWelcomeEmailToMailSendEndpoint() throws IOException {
+		sender.send(new OutboxEmail(1, SendGridEmailSender.WELCOME, "new@example.com", "New User", 1));
+
+		assertEquals("/v3/mail/send", path.get());
+		assertTrue(body.get().contains("new@example.com"));
+		assertTrue(body.get().contains("d-welcome"));
+	}
+
+	@Test
+	void throwsWhenSendGridRejectsTheMessage() {
+		status.set(500);
+
+		assertThrows(IOException.class, () ->
+				sender.send(new OutboxEmail(1, SendGridEmailSender.WELCOME, "new@example.com", "New User", 1)));
+	}
+}
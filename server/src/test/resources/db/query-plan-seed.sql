@@ -0,0 +1,69 @@
+-- Seed data for QueryPlanTests: enough rows, spread over a year, that the planner prefers an index wherever a
+-- usable one exists. Every user has a handful of requests, prayers, posts and notifications.
+
+INSERT INTO users (name, display_name, email, password_hash, role)
+SELECT 'User ' || i, 'user' || i, 'user' || i || '@example.com', 'x', 'ROLE_USER'
+FROM generate_series(1, 20000) i;
+
+INSERT INTO prayer_requests (requester_id, name, content, category, created_at, updated_at, is_visible, is_answered, prayer_count)
+SELECT (i % 20000) + 1, 'Request ' || i, 'Please pray for request ' || i,
+       (ARRAY['General', 'Healing', 'Family', 'Work', 'Guidance', 'Thanksgiving'])[(i % 6) + 1],
+       NOW() - i * INTERVAL '10 minutes', NOW() - i * INTERVAL '10 minutes', TRUE, i % 5 = 0, 4
+FROM generate_series(1, 50000) i;
+
+-- Four prayers per request, each from a different user
+INSERT INTO prayers (prayer_request_id, user_id, prayed_at)
+SELECT (i % 50000) + 1, ((i / 50000) * 5000 + i % 5000) % 20000 + 1, NOW() - i * INTERVAL '157 seconds'
+FROM generate_series(0, 199999) i;
+
+INSERT INTO prayer_activity (user_id, day, prayer_count)
+SELECT user_id, prayed_at::date, COUNT(*)
+FROM prayers
+GROUP BY user_id, prayed_at::date;
+
+INSERT INTO user_prayer_stats (user_id, total_prayers, current_streak, last_prayer_date)
+SELECT user_id, COUNT(*), 1, MAX(prayed_at)::date
+FROM prayers
+GROUP BY user_id;
+
+INSERT INTO comments (prayer_request_id, user_id, content, created_at)
+SELECT (i % 50000) + 1, (i % 20000) + 1, 'Comment ' || i, NOW() - i * INTERVAL '5 minutes'
+FROM generate_series(1, 100000) i;
+
+INSERT INTO posts (user_id, content, created_at, amen_count, comment_count)
+SELECT (i % 20000) + 1, 'Post ' || i, NOW() - i * INTERVAL '10 minutes', 2, 2
+FROM generate_series(1, 50000) i;
+
+-- Every tenth post is a repost of the one before it
+UPDATE posts SET original_post_id = id - 1 WHERE id % 10 = 0;
+
+INSERT INTO post_comments (post_id, user_id, content, created_at)
+SELECT (i % 50000) + 1, (i % 20000) + 1, 'Reply ' || i, NOW() - i * INTERVAL '5 minutes'
+FROM generate_series(1, 100000) i;
+
+-- Two AMEN reactions per post, each from a different user
+INSERT INTO post_reactions (post_id, user_id, type)
+SELECT (i % 50000) + 1, ((i / 50000) * 10007 + i % 20000) % 20000 + 1, 'AMEN'
+FROM generate_series(0, 99999) i;
+
+INSERT INTO notifications (user_id, message, sender_id, type, prayer_request_id, is_read, created_at, actor_ids, actor_names)
+SELECT (i % 20000) + 1, 'Someone prayed for your request', ((i + 1) % 20000) + 1, 'PRAYER', (i % 50000) + 1,
+       i % 3 <> 0, NOW() - i * INTERVAL '1 minute', ARRAY[((i + 1) % 20000) + 1], ARRAY['user' || ((i + 1) % 20000) + 1]
+FROM generate_series(1, 200000) i;
+
+INSERT INTO user_notification_state (user_id, unread_count)
+SELECT user_id, COUNT(*) FILTER (WHERE NOT is_read)
+FROM notifications
+GROUP BY user_id;
+
+INSERT INTO user_badges (user_id, badge_id)
+SELECT u, b.id
+FROM generate_series(1, 20000) u
+CROSS JOIN (SELECT id FROM badges ORDER BY id LIMIT 3) b;
+
+INSERT INTO email_outbox (kind, recipient_email, recipient_name, status, sent_at)
+SELECT 'WELCOME', 'user' || i || '@example.com', 'User ' || i,
+       CASE WHEN i <= 20 THEN 'PENDING' ELSE 'SENT' END, CASE WHEN i <= 20 THEN NULL ELSE NOW() END
+FROM generate_series(1, 50000) i;
+
+ANALYZE;